@@ -3,15 +3,24 @@ package ch.cern.todo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import ch.cern.todo.backup.DatabaseRestore;
 import ch.cern.todo.config.SecurityConfig;
+import ch.cern.todo.config.TodoRuntimeHints;
 
 @SpringBootApplication
 @Import(SecurityConfig.class)
+@ImportRuntimeHints(TodoRuntimeHints.class)
+@EnableScheduling
 public class TodoApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(TodoApplication.class, args);
+		SpringApplication application = new SpringApplication(TodoApplication.class);
+		// --todo.restore.from=<backup.zip> replaces the database before startup
+		application.addListeners(new DatabaseRestore());
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,156 @@
+package ch.cern.todo.backup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Online backups of the H2 file database while the application keeps serving
+ * requests. H2's BACKUP TO copies the MVStore file into a zip archive; since
+ * the MVStore is multi-versioned, the copy is a transactionally consistent
+ * snapshot without locking any table. The archive can be restored with
+ * --todo.restore.from (see DatabaseRestore).
+ */
+@Component
+public class DatabaseBackup {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBackup.class);
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path databaseFile;
+    private final Path directory;
+    private final Timer timer;
+
+    /**
+     * Constructor for DatabaseBackup.
+     *
+     * @param dataSource    The application DataSource.
+     * @param url           The JDBC URL of the database.
+     * @param directory     The directory the backups are written to.
+     * @param meterRegistry The registry for the backup metrics.
+     */
+    public DatabaseBackup(DataSource dataSource, @Value("${spring.datasource.url:}") String url,
+            @Value("${todo.backup.directory:./backups}") Path directory, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.databaseFile = H2DatabaseFile.of(url);
+        this.directory = directory;
+        this.timer = Timer.builder("todo.backup").description("Online database backups").register(meterRegistry);
+    }
+
+    /**
+     * Backs up the database into a new timestamped archive of the backup
+     * directory.
+     *
+     * @return The archive and the time taken.
+     * @throws IllegalArgumentException If the database is not an H2 file
+     *                                  database.
+     */
+    public Result backup() {
+        String name = databaseFile != null ? databaseFile.getFileName().toString().replace(".mv.db", "") : "db";
+        return backup(directory.resolve(name + "-" + LocalDateTime.now().format(TIMESTAMP) + ".zip"));
+    }
+
+    /**
+     * Backs up the database into the given archive.
+     *
+     * @param target The zip archive to create.
+     * @return The archive and the time taken.
+     * @throws IllegalArgumentException If the database is not an H2 file
+     *                                  database, or the archive exists.
+     */
+    public Result backup(Path target) {
+        if (databaseFile == null) {
+            throw new IllegalArgumentException("Online backups are only supported for H2 file databases");
+        }
+        if (Files.exists(target)) {
+            throw new IllegalArgumentException("Backup file already exists: " + target);
+        }
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            long start = System.nanoTime();
+            jdbcTemplate.execute("BACKUP TO '" + target.toAbsolutePath().toString().replace("'", "''") + "'");
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            Result result = new Result(target.toAbsolutePath().toString(), Files.size(target),
+                    Files.size(databaseFile), elapsed / 1_000_000);
+            logger.info("Backed up {} ({} KB) to {} ({} KB) in {} ms", databaseFile, result.databaseBytes / 1024,
+                    result.file, result.sizeBytes / 1024, result.elapsedMillis);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the backup " + target, e);
+        }
+    }
+
+    /**
+     * The outcome of a backup.
+     */
+    public static final class Result {
+        private final String file;
+        private final long sizeBytes;
+        private final long databaseBytes;
+        private final long elapsedMillis;
+
+        private Result(String file, long sizeBytes, long databaseBytes, long elapsedMillis) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            this.databaseBytes = databaseBytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * Getter for the backup archive.
+         *
+         * @return The absolute path of the zip archive.
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Getter for the size of the archive.
+         *
+         * @return The size in bytes.
+         */
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        /**
+         * Getter for the size of the database file.
+         *
+         * @return The size in bytes.
+         */
+        public long getDatabaseBytes() {
+            return databaseBytes;
+        }
+
+        /**
+         * Getter for the duration of the backup.
+         *
+         * @return The elapsed time in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ch.cern.todo.backup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Restore mode: started with --todo.restore.from=backups/mydb-....zip, the
+ * application replaces its H2 database file with the one of a DatabaseBackup
+ * archive before the DataSource is created (an existing file is kept as
+ * *.before-restore-<timestamp>, never overwritten). Unless
+ * todo.restore.warm-up=false, the restored file is then memory-mapped and
+ * loaded page by page, so that it sits in the OS page cache and the first
+ * queries after startup do not wait for the disk.
+ *
+ * The restore is one-shot: the SHA-256 checksum of the restored archive is
+ * recorded next to the database file (*.restored), and an archive with the
+ * recorded checksum is not restored again. A todo.restore.from left in the
+ * service definition therefore does not roll the database back on every
+ * restart.
+ *
+ * Registered on the SpringApplication in TodoApplication.main, as it has to run
+ * before the application context exists.
+ */
+public class DatabaseRestore implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseRestore.class);
+
+    /**
+     * Largest region mapped at once (a MappedByteBuffer is int-indexed).
+     */
+    private static final long MAP_CHUNK = 1L << 30;
+
+    private static final DateTimeFormatter SAVED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * Restores the database if todo.restore.from is set.
+     *
+     * @param event The event carrying the environment.
+     * @throws IllegalStateException If the database is not an H2 file database.
+     * @throws UncheckedIOException  If the archive cannot be restored.
+     */
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        String from = environment.getProperty("todo.restore.from");
+        if (!StringUtils.hasText(from)) {
+            return;
+        }
+        Path databaseFile = H2DatabaseFile.of(environment.getProperty("spring.datasource.url"));
+        if (databaseFile == null) {
+            throw new IllegalStateException("todo.restore.from requires an H2 file database");
+        }
+        try {
+            restore(Path.of(from), databaseFile, environment.getProperty("todo.restore.warm-up", Boolean.class, true));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore the database from " + from, e);
+        }
+    }
+
+    /**
+     * Extracts the database file of a backup archive in place of the given file
+     * and optionally warms it up, unless this archive was the last one restored
+     * into the file.
+     *
+     * @param backup       The zip archive written by DatabaseBackup.
+     * @param databaseFile The database file to replace.
+     * @param warmUp       Whether to load the restored file into the page cache.
+     * @return The number of bytes restored, or 0 if the archive had already
+     *         been restored and the database was left alone.
+     * @throws IOException              If the archive cannot be read or the file
+     *                                  not written.
+     * @throws IllegalArgumentException If the archive holds no database file.
+     */
+    public static long restore(Path backup, Path databaseFile, boolean warmUp) throws IOException {
+        long start = System.nanoTime();
+        Path marker = databaseFile.resolveSibling(databaseFile.getFileName() + ".restored");
+        String checksum = checksum(backup);
+        if (Files.exists(databaseFile) && Files.exists(marker)
+                && Files.readString(marker, StandardCharsets.UTF_8).trim().equals(checksum)) {
+            logger.warn("{} was already restored into {}; skipping the restore (remove todo.restore.from)", backup,
+                    databaseFile);
+            return 0;
+        }
+        Path directory = databaseFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path extracted = Files.createTempFile(directory, databaseFile.getFileName().toString(), ".restore");
+        try (ZipFile zip = new ZipFile(backup.toFile())) {
+            ZipEntry entry = databaseEntry(zip);
+            try (InputStream in = zip.getInputStream(entry)) {
+                Files.copy(in, extracted, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Files.exists(databaseFile)) {
+                Path saved = databaseFile.resolveSibling(databaseFile.getFileName() + ".before-restore-"
+                        + LocalDateTime.now().format(SAVED_SUFFIX));
+                Files.move(databaseFile, saved);
+                logger.info("Kept the previous database as {}", saved);
+            }
+            Files.move(extracted, databaseFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(extracted);
+        }
+        Files.writeString(marker, checksum + System.lineSeparator(), StandardCharsets.UTF_8);
+        long size = Files.size(databaseFile);
+        long restored = System.nanoTime();
+        logger.info("Restored {} ({} KB) from {} in {} ms", databaseFile, size / 1024, backup,
+                (restored - start) / 1_000_000);
+        if (warmUp) {
+            warmUp(databaseFile);
+            logger.info("Loaded {} KB of {} into the page cache in {} ms", size / 1024, databaseFile,
+                    (System.nanoTime() - restored) / 1_000_000);
+        }
+        return size;
+    }
+
+    /**
+     * Memory-maps a file and loads every page of it into physical memory.
+     *
+     * @param file The file to load.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static void warmUp(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_CHUNK) {
+                channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position)).load();
+            }
+        }
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 checksum of a file.
+     */
+    private static String checksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static ZipEntry databaseEntry(ZipFile zip) {
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (entry.getName().endsWith(".mv.db")) {
+                return entry;
+            }
+        }
+        throw new IllegalArgumentException("The backup " + zip.getName() + " contains no H2 database file");
+    }
+}
@@ -0,0 +1,46 @@
+package ch.cern.todo.backup;
+
+import java.nio.file.Path;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Locates the MVStore file of an H2 database from its JDBC URL.
+ */
+final class H2DatabaseFile {
+
+    private static final String PREFIX = "jdbc:h2:";
+
+    private H2DatabaseFile() {
+    }
+
+    /**
+     * Resolves the database file of an embedded H2 file database, e.g.
+     * jdbc:h2:file:./data/mydb;CACHE_SIZE=65536 to ./data/mydb.mv.db.
+     *
+     * @param url The JDBC URL.
+     * @return The database file, or null for other databases (in-memory or
+     *         remote H2, other vendors).
+     */
+    static Path of(String url) {
+        if (url == null || !url.startsWith(PREFIX)) {
+            return null;
+        }
+        String name = url.substring(PREFIX.length());
+        int options = name.indexOf(';');
+        if (options >= 0) {
+            name = name.substring(0, options);
+        }
+        if (name.startsWith("file:")) {
+            name = name.substring("file:".length());
+        } else if (name.matches("^[a-z]{2,}:.*")) {
+            return null; // mem:, tcp:, ssl:, zip:, ...
+        }
+        if (name.startsWith("~")) {
+            name = System.getProperty("user.home") + name.substring(1);
+        }
+        return name.isEmpty() ? null : Path.of(name + ".mv.db");
+    }
+}
@@ -0,0 +1,40 @@
+package ch.cern.todo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Configuration of the dedicated executor for asynchronous task searches. The
+ * pool and its queue are bounded so that slow searches cannot take over the
+ * request threads serving CRUD traffic; once both are full further searches are
+ * rejected (HTTP 503).
+ */
+@Configuration
+public class AsyncSearchConfig {
+
+    /**
+     * Creates the bounded search executor.
+     * 
+     * @param poolSize      The number of search threads.
+     * @param queueCapacity The number of searches that may wait for a thread.
+     * @return A ThreadPoolTaskExecutor that rejects work when saturated.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(@Value("${todo.search.async.pool-size:4}") int poolSize,
+            @Value("${todo.search.async.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("task-search-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.backup.DatabaseBackup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Command-line backup: started with --todo.backup.to=backup.zip (and
+ * preferably --spring.main.web-application-type=none), the application backs
+ * up its database into the archive and exits. A running instance holds the
+ * lock on the database file, so it is backed up through POST
+ * /api/admin/backup instead.
+ */
+@Component
+public class DatabaseBackupRunner implements ApplicationRunner {
+
+    private final DatabaseBackup databaseBackup;
+    private final ApplicationContext context;
+    private final String target;
+
+    /**
+     * Constructor for DatabaseBackupRunner.
+     *
+     * @param databaseBackup The backup service.
+     * @param context        The application context closed after the backup.
+     * @param target         The archive to create (empty for none).
+     */
+    public DatabaseBackupRunner(DatabaseBackup databaseBackup, ApplicationContext context,
+            @Value("${todo.backup.to:}") String target) {
+        this.databaseBackup = databaseBackup;
+        this.context = context;
+        this.target = target;
+    }
+
+    /**
+     * Backs up the database and exits.
+     *
+     * @param args The application arguments.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!StringUtils.hasText(target)) {
+            return;
+        }
+        databaseBackup.backup(Path.of(target));
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,104 @@
+package ch.cern.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Startup self-check that logs the effective connection pool and H2 storage
+ * settings. Values configured through the todo.h2.* properties (see the prod
+ * profile) are compared against what the database actually reports, and a
+ * warning is logged for every setting that did not take effect.
+ */
+@Component
+public class DatabaseSettingsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSettingsReporter.class);
+
+    /**
+     * H2 settings to report, mapped to the todo.h2.* property that configures
+     * them.
+     */
+    private static final Map<String, String> H2_SETTINGS = Map.of(
+            "CACHE_SIZE", "todo.h2.cache-size",
+            "WRITE_DELAY", "todo.h2.write-delay",
+            "AUTO_COMPACT_FILL_RATE", "todo.h2.auto-compact-fill-rate",
+            "QUERY_CACHE_SIZE", "todo.h2.query-cache-size");
+
+    private final DataSource dataSource;
+    private final Environment environment;
+
+    /**
+     * Constructor for DatabaseSettingsReporter.
+     *
+     * @param dataSource  The application DataSource.
+     * @param environment The Spring environment holding the configured values.
+     */
+    public DatabaseSettingsReporter(DataSource dataSource, Environment environment) {
+        this.dataSource = dataSource;
+        this.environment = environment;
+    }
+
+    /**
+     * Logs the effective settings once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                logger.info("Connection pool '{}': maximumPoolSize={}, minimumIdle={}, connectionTimeout={}ms",
+                        hikari.getPoolName(), hikari.getMaximumPoolSize(), hikari.getMinimumIdle(),
+                        hikari.getConnectionTimeout());
+            }
+            if (!isH2()) {
+                return;
+            }
+            Map<String, String> effective = readH2Settings();
+            logger.info("H2 settings: {}, PAGE_SIZE(configured)={}", effective,
+                    environment.getProperty("todo.h2.page-split-size", "default"));
+            H2_SETTINGS.forEach((setting, property) -> {
+                String configured = environment.getProperty(property);
+                if (configured != null && !configured.equals(effective.get(setting))) {
+                    logger.warn("H2 setting {} is {} but {}={} was configured", setting, effective.get(setting),
+                            property, configured);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not read effective database settings", e);
+        }
+    }
+
+    private boolean isH2() {
+        String url = environment.getProperty("spring.datasource.url", "");
+        return url.startsWith("jdbc:h2:");
+    }
+
+    private Map<String, String> readH2Settings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList(
+                "SELECT SETTING_NAME, SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS");
+        for (Map<String, Object> row : rows) {
+            String name = String.valueOf(row.get("SETTING_NAME"));
+            if (H2_SETTINGS.containsKey(name)) {
+                settings.put(name, String.valueOf(row.get("SETTING_VALUE")));
+            }
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,30 @@
+package ch.cern.todo.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Customization of the application ObjectMapper. TaskDTO declares a Jackson
+ * filter for sparse fieldsets; the default filter provider lets every property
+ * through unless a response installs its own filter (see
+ * TaskFieldsResponseAdvice).
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registers the pass-through filter provider.
+     *
+     * @return The ObjectMapper customizer.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer taskFieldsFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
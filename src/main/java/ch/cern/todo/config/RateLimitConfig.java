@@ -0,0 +1,65 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.ratelimit.AdaptiveConcurrencyLimiter;
+import ch.cern.todo.ratelimit.ClientRateLimiter;
+import ch.cern.todo.ratelimit.RateLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Configuration of the rate limiting and load shedding of the task API. Can be
+ * switched off with todo.ratelimit.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * Constructor for RateLimitConfig.
+     * 
+     * @param clientRateLimiter  The per-client token buckets.
+     * @param concurrencyLimiter The adaptive concurrency limit.
+     * @param meterRegistry      The registry for the limiter metrics.
+     */
+    public RateLimitConfig(ClientRateLimiter clientRateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            MeterRegistry meterRegistry) {
+        this.rateLimitInterceptor = new RateLimitInterceptor(clientRateLimiter, concurrencyLimiter, meterRegistry);
+    }
+
+    /**
+     * Creates the adaptive concurrency limit of the task API.
+     * 
+     * @param initialLimit The initial limit.
+     * @param minLimit     The lowest the limit may fall to.
+     * @param maxLimit     The highest the limit may grow to.
+     * @param tolerance    The tolerated latency, as a multiple of the no-load
+     *                     latency.
+     * @param windowSize   The number of samples per baseline window.
+     * @return An AdaptiveConcurrencyLimiter instance.
+     */
+    @Bean
+    public static AdaptiveConcurrencyLimiter taskApiConcurrencyLimiter(
+            @Value("${todo.ratelimit.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${todo.ratelimit.concurrency.min-limit:4}") int minLimit,
+            @Value("${todo.ratelimit.concurrency.max-limit:100}") int maxLimit,
+            @Value("${todo.ratelimit.concurrency.tolerance:3.0}") double tolerance,
+            @Value("${todo.ratelimit.concurrency.window-size:500}") int windowSize) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, windowSize);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/tasks", "/api/tasks/**");
+    }
+}
@@ -0,0 +1,55 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.reminder.LoggingReminderSink;
+import ch.cern.todo.reminder.ReminderSink;
+import ch.cern.todo.reminder.WebhookReminderSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Configuration of the destination of deadline reminders: the application log
+ * (todo.reminder.sink=log, the default) or a webhook
+ * (todo.reminder.sink=webhook with todo.reminder.webhook.url).
+ */
+@Configuration
+public class ReminderConfig {
+
+    /**
+     * Creates the reminder sink.
+     * 
+     * @param sink         The sink type: log or webhook.
+     * @param webhookUrl   The webhook URL (webhook sink only).
+     * @param timeout      The webhook request timeout.
+     * @param objectMapper The ObjectMapper used to serialize the reminders.
+     * @return The configured ReminderSink.
+     * @throws IllegalArgumentException If the sink type is unknown or the
+     *                                  webhook URL is missing.
+     */
+    @Bean
+    public ReminderSink reminderSink(@Value("${todo.reminder.sink:log}") String sink,
+            @Value("${todo.reminder.webhook.url:}") String webhookUrl,
+            @Value("${todo.reminder.webhook.timeout:PT5S}") Duration timeout,
+            ObjectMapper objectMapper) {
+        switch (sink) {
+            case "log":
+                return new LoggingReminderSink();
+            case "webhook":
+                if (!StringUtils.hasText(webhookUrl)) {
+                    throw new IllegalArgumentException("todo.reminder.webhook.url must be set for the webhook sink");
+                }
+                return new WebhookReminderSink(URI.create(webhookUrl), timeout, objectMapper);
+            default:
+                throw new IllegalArgumentException("Unknown reminder sink (expected log or webhook): " + sink);
+        }
+    }
+}
@@ -63,9 +63,10 @@ public class SecurityConfig {
     /**
      * Configures the Spring Security filter chain for web security.
      * This method defines authorization rules for different endpoints, including:
-     * - Permitting access to Swagger and H2 Console
-     * - Requiring ADMIN role for access to /api/tasks, /api/users, and
-     * /api/categories endpoints.
+     * - Permitting access to Swagger, H2 Console and the actuator health endpoint
+     * - Requiring ADMIN role for the other actuator endpoints (metrics).
+     * - Requiring ADMIN role for access to /api/tasks, /api/users,
+     * /api/categories and /api/admin (database backups) endpoints.
      * - Enabling HTTP Basic authentication
      * - Disabling CSRF protection for specific endpoints for testing purposes
      * (remove or adjust this in production).
@@ -82,12 +83,15 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui.html").permitAll()
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // .requestMatchers("/api/tasks/**").authenticated()
                 .requestMatchers("/api/tasks/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
                 // .requestMatchers("/api/users/**").authenticated()
                 // .requestMatchers("/api/roles/**").authenticated()
-                .requestMatchers("/api/categories/**").hasRole("ADMIN");
+                .requestMatchers("/api/categories/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN");
 
         http.headers().frameOptions().disable();
 
@@ -95,6 +99,7 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/users/**"));
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/tasks/**"));
         http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/categories/**"));
+        http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/admin/**"));
         // http.csrf(csrf -> csrf.ignoringRequestMatchers("/api/roles**"));
 
         http.formLogin()
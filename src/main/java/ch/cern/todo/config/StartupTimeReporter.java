@@ -0,0 +1,77 @@
+package ch.cern.todo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Logs the time-to-ready of the application, measured from process start so
+ * that class loading and AOT/CDS effects are included, together with the
+ * resident set size at that point. With todo.startup.exit-on-ready=true the
+ * application shuts down as soon as it is ready, which is what the
+ * startupBenchmark Gradle task relies on.
+ */
+@Component
+public class StartupTimeReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    private final boolean exitOnReady;
+
+    /**
+     * Constructor for StartupTimeReporter.
+     *
+     * @param exitOnReady Whether to exit the application once it is ready.
+     */
+    public StartupTimeReporter(@Value("${todo.startup.exit-on-ready:false}") boolean exitOnReady) {
+        this.exitOnReady = exitOnReady;
+    }
+
+    /**
+     * Reports the time-to-ready and optionally exits.
+     *
+     * @param event The ApplicationReadyEvent.
+     */
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        logger.info("time-to-ready={}ms rss={}KB (context started in {}ms)", uptime, residentSetKilobytes(),
+                event.getTimeTaken().toMillis());
+        if (exitOnReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    /**
+     * Reads the resident set size from /proc (Linux); elsewhere falls back to the
+     * used heap.
+     *
+     * @return The resident set size in KB.
+     */
+    private static long residentSetKilobytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not on Linux
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+    }
+}
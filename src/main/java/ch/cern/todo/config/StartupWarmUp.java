@@ -0,0 +1,255 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.dto.TaskBulkUpdateDTO;
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.TaskStatus;
+import ch.cern.todo.model.User;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import ch.cern.todo.search.TaskTextIndex;
+import ch.cern.todo.service.CategoryPayloadCache;
+import ch.cern.todo.service.TaskSearchPlans;
+import ch.cern.todo.service.TaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Warm-up stage run after the context has started and before the application
+ * reports readiness: Spring Boot only switches the readiness state (and
+ * /actuator/health/readiness) to ACCEPTING_TRAFFIC once all ApplicationRunners
+ * have returned. The stage
+ * - loads all task categories into the second-level and query caches, and the
+ * serialized category list into CategoryPayloadCache,
+ * - runs every precompiled search statement and the common TaskRepository and
+ * UserRepository queries once with values that match nothing, so that
+ * Hibernate translates them and H2 prepares them and reads their index pages,
+ * - serializes and deserializes the API types with the application
+ * ObjectMapper, so that Jackson builds its serializers,
+ * - waits up to index-timeout for the trigram index and the task snapshot to
+ * finish their initial build.
+ * The warm-up is skipped in the command-line modes (todo.import.file,
+ * todo.backup.to), which exit without serving requests. A failing step is
+ * logged and skipped; it never prevents the startup. The time taken is logged
+ * and recorded as todo.startup.warm-up.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private final TaskCategoryRepository categoryRepository;
+    private final CategoryPayloadCache categoryPayloadCache;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskSearchPlans searchPlans;
+    private final TaskService taskService;
+    private final TaskTextIndex textIndex;
+    private final TaskSnapshot snapshot;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final boolean commandLineMode;
+    private final Duration indexTimeout;
+    private final Timer timer;
+
+    /**
+     * Constructor for StartupWarmUp.
+     *
+     * @param categoryRepository   The repository the categories are preloaded
+     *                             from.
+     * @param categoryPayloadCache The cache of the serialized category list.
+     * @param taskRepository       The repository whose queries are primed.
+     * @param userRepository       The repository whose queries are primed.
+     * @param searchPlans          The precompiled search statements to prime.
+     * @param taskService          The service whose search path is primed.
+     * @param textIndex            The trigram index to wait for.
+     * @param snapshot             The task snapshot to wait for.
+     * @param objectMapper         The application ObjectMapper.
+     * @param transactionManager   The transaction manager for the queries.
+     * @param enabled              Whether the warm-up runs at all.
+     * @param importFile           The file of a command-line import (empty
+     *                             for none); skips the warm-up.
+     * @param backupTarget         The target of a command-line backup (empty
+     *                             for none); skips the warm-up.
+     * @param indexTimeout         How long to wait for the in-memory indexes
+     *                             (zero to not wait).
+     * @param meterRegistry        The registry for the warm-up metric.
+     */
+    public StartupWarmUp(TaskCategoryRepository categoryRepository, CategoryPayloadCache categoryPayloadCache,
+            TaskRepository taskRepository, UserRepository userRepository, TaskSearchPlans searchPlans,
+            TaskService taskService, TaskTextIndex textIndex, TaskSnapshot snapshot, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.warm-up.enabled:true}") boolean enabled,
+            @Value("${todo.import.file:}") String importFile,
+            @Value("${todo.backup.to:}") String backupTarget,
+            @Value("${todo.warm-up.index-timeout:PT30S}") Duration indexTimeout,
+            MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.categoryPayloadCache = categoryPayloadCache;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.searchPlans = searchPlans;
+        this.taskService = taskService;
+        this.textIndex = textIndex;
+        this.snapshot = snapshot;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.commandLineMode = StringUtils.hasText(importFile) || StringUtils.hasText(backupTarget);
+        this.indexTimeout = indexTimeout;
+        this.timer = Timer.builder("todo.startup.warm-up").description("Duration of the startup warm-up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the warm-up stage.
+     *
+     * @param args The application arguments.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || commandLineMode) {
+            return;
+        }
+        long start = System.nanoTime();
+        int categories = step("category preload", this::preloadCategories);
+        int statements = step("statement priming", this::primeStatements);
+        int types = step("serializer warm-up", this::exerciseSerializers);
+        boolean indexesBuilt = step("index wait", this::awaitIndexes) == 1;
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Warm-up completed in {} ms: {} categories, {} statements, {} serialized types, "
+                + "in-memory indexes {}", elapsed / 1_000_000, categories, statements, types,
+                indexesBuilt ? "built" : "still building");
+    }
+
+    private int step(String name, StepAction action) {
+        long start = System.nanoTime();
+        try {
+            int result = action.run();
+            logger.debug("Warm-up {} took {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            return result;
+        } catch (RuntimeException | JsonProcessingException e) {
+            logger.warn("Warm-up {} failed; continuing without it", name, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Loads the categories through the entity and query caches and fills the
+     * category payload cache.
+     */
+    private int preloadCategories() {
+        List<TaskCategory> categories = readOnlyTransaction.execute(status -> {
+            List<TaskCategory> all = categoryRepository.findAll();
+            all.forEach(category -> categoryRepository.findByName(category.getName()));
+            return all;
+        });
+        categoryPayloadCache.get();
+        return categories.size();
+    }
+
+    /**
+     * Runs the search statements of every filter shape, the search path of
+     * TaskService and the common repository lookups.
+     */
+    private int primeStatements() {
+        int statements = readOnlyTransaction.execute(status -> {
+            int primed = searchPlans.prime();
+            taskRepository.findById(-1L);
+            taskRepository.existsById(-1L);
+            taskRepository.findOpenDeadlinesBetween(LocalDateTime.of(1970, 1, 1, 0, 0),
+                    LocalDateTime.of(1970, 1, 2, 0, 0));
+            userRepository.findById(-1L);
+            userRepository.existsById(-1L);
+            return primed + 5;
+        });
+        taskService.searchTasks("~prime~", null, null, null, null, true);
+        return statements + 1;
+    }
+
+    /**
+     * Round-trips the API types through the ObjectMapper.
+     */
+    private int exerciseSerializers() throws JsonProcessingException {
+        TaskCategory category = new TaskCategory("warm-up", "Warm-up category");
+        category.setId(-1L);
+        User user = new User("warm-up", "secret", "warm-up@example.org", RoleType.USER);
+        user.setId(-1L);
+        Task task = new Task("warm-up", "Warm-up task", LocalDateTime.of(2030, 1, 1, 9, 0), category, user);
+        task.setId(-1L);
+        TaskDTO dto = new TaskDTO();
+        dto.setId(-1L);
+        dto.setName("warm-up");
+        dto.setDeadline(task.getDeadline());
+        dto.setStatus(TaskStatus.OPEN);
+        List<Object> values = List.of(task, category, user, dto, List.of(dto), Map.of("count", 0L));
+        for (Object value : values) {
+            objectMapper.writeValueAsBytes(value);
+        }
+        objectMapper.readValue(objectMapper.writeValueAsString(task), Task.class);
+        objectMapper.readValue(objectMapper.writeValueAsString(dto), TaskDTO.class);
+        objectMapper.readValue("{\"categoryId\":1,\"newUserId\":2}", TaskBulkUpdateDTO.class);
+        return values.size() + 3;
+    }
+
+    /**
+     * Waits for the initial build of the enabled in-memory indexes to finish; a
+     * build that failed is not waited for (the searches use the database).
+     *
+     * @return 1 once the builds have finished, 0 on timeout.
+     */
+    private int awaitIndexes() {
+        long deadline = System.nanoTime() + indexTimeout.toNanos();
+        while (textIndex.isBuilding() || snapshot.isBuilding()) {
+            if (System.nanoTime() >= deadline) {
+                return 0;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * One step of the warm-up.
+     */
+    @FunctionalInterface
+    private interface StepAction {
+        int run() throws JsonProcessingException;
+    }
+}
@@ -0,0 +1,79 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.service.TaskImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Command-line import of a task file: started with
+ * --todo.import.file=tasks.csv (or .ndjson/.jsonl), the application imports
+ * the file with TaskImporter, logs the report and exits, with status 1 if
+ * records were rejected. Add --spring.main.web-application-type=none to skip
+ * the web server. Without todo.import.file the runner does nothing (the
+ * property is read at runtime rather than through a condition, so that it
+ * also works with the AOT-processed context).
+ */
+@Component
+public class TaskImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportRunner.class);
+
+    private final TaskImporter taskImporter;
+    private final ApplicationContext context;
+    private final String file;
+
+    /**
+     * Constructor for TaskImportRunner.
+     *
+     * @param taskImporter The importer.
+     * @param context      The application context closed after the import.
+     * @param file         The file to import (empty for none).
+     */
+    public TaskImportRunner(TaskImporter taskImporter, ApplicationContext context,
+            @Value("${todo.import.file:}") String file) {
+        this.taskImporter = taskImporter;
+        this.context = context;
+        this.file = file;
+    }
+
+    /**
+     * Imports the configured file and exits.
+     *
+     * @param args The application arguments.
+     * @throws IOException If the file cannot be opened.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!StringUtils.hasText(file)) {
+            return;
+        }
+        TaskImporter.Report report;
+        try (InputStream in = Files.newInputStream(Path.of(file))) {
+            report = taskImporter.importTasks(in, TaskImporter.Format.forFileName(file));
+        }
+        for (TaskImporter.RowError error : report.getErrors()) {
+            logger.warn("{}:{}: {}", file, error.getLine(), error.getMessage());
+        }
+        if (report.getRejected() > report.getErrors().size()) {
+            logger.warn("{} more rejected records not listed", report.getRejected() - report.getErrors().size());
+        }
+        int status = report.getRejected() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
@@ -0,0 +1,47 @@
+package ch.cern.todo.config;
+
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskStatus;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import db.migration.V4__normalized_search_columns;
+import db.migration.V5__recompose_normalized_search_columns;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * GraalVM native-image hints for types that are reached reflectively without
+ * Spring AOT seeing them. Controller signatures are covered by Spring itself, but
+ * the category payload cache serializes entities through the ObjectMapper
+ * directly, and the JPA entities and DTOs are also (de)serialized by Jackson.
+ */
+public class TodoRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    /**
+     * Registers the Jackson binding hints for the DTOs and entities, the
+     * migration scripts as resources and the Java migrations for instantiation.
+     *
+     * @param hints       The hints to contribute to.
+     * @param classLoader The class loader to use.
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                TaskDTO.class, Task.class, TaskCategory.class, User.class, RoleType.class, TaskStatus.class);
+        hints.resources().registerPattern("db/migration/*.sql");
+        hints.reflection().registerType(V4__normalized_search_columns.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(V5__recompose_normalized_search_columns.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
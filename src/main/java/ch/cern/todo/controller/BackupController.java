@@ -0,0 +1,33 @@
+package ch.cern.todo.controller;
+
+import ch.cern.todo.backup.DatabaseBackup;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * REST controller for the administrative database operations.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class BackupController {
+    private final DatabaseBackup databaseBackup;
+
+    public BackupController(DatabaseBackup databaseBackup) {
+        this.databaseBackup = databaseBackup;
+    }
+
+    /**
+     * Takes an online backup of the H2 database into the backup directory while
+     * requests keep being served.
+     * 
+     * @return The backup archive, its size and the time taken; 400 Bad Request
+     *         if the database is not an H2 file database.
+     */
+    @PostMapping("/backup")
+    public DatabaseBackup.Result backup() {
+        return databaseBackup.backup();
+    }
+}
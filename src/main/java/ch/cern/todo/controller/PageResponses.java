@@ -0,0 +1,74 @@
+package ch.cern.todo.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Builds the responses of the paginated list endpoints. The body stays a plain
+ * JSON array, so existing clients keep working; the page metadata travels in
+ * headers instead: X-Total-Count (only when the total was counted) and an RFC
+ * 8288 Link header with next/prev (and first/last) relations.
+ */
+final class PageResponses {
+
+    static final String TOTAL_COUNT = "X-Total-Count";
+
+    private PageResponses() {
+    }
+
+    /**
+     * Checks whether the client asked for a specific page, size or sort order.
+     *
+     * @param request The current request.
+     * @return True if any pagination parameter is present.
+     */
+    static boolean isPageRequest(WebRequest request) {
+        return request.getParameter("page") != null || request.getParameter("size") != null
+                || request.getParameter("sort") != null;
+    }
+
+    /**
+     * Builds the 200 OK response for a page or slice.
+     *
+     * @param slice The page (with total count) or slice (without) to return.
+     * @param <T>   The element type.
+     * @return The response with the page content and the page headers.
+     */
+    static <T> ResponseEntity<List<T>> ok(Slice<T> slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<String> links = new ArrayList<>();
+        if (slice.hasPrevious()) {
+            links.add(link(slice.getNumber() - 1, "prev"));
+        }
+        if (slice.hasNext()) {
+            links.add(link(slice.getNumber() + 1, "next"));
+        }
+        if (slice instanceof Page<T> page) {
+            response.header(TOTAL_COUNT, Long.toString(page.getTotalElements()));
+            links.add(link(0, "first"));
+            links.add(link(Math.max(page.getTotalPages() - 1, 0), "last"));
+        }
+        if (!links.isEmpty()) {
+            response.header(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return response.body(slice.getContent());
+    }
+
+    private static String link(int page, String rel) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .toUriString();
+        return "<" + uri + ">; rel=\"" + rel + "\"";
+    }
+}
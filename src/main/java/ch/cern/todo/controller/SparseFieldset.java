@@ -0,0 +1,20 @@
+package ch.cern.todo.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Marks a handler method whose TaskDTO response honours the fields request
+ * parameter. The JSON output is narrowed by TaskFieldsResponseAdvice; the
+ * handler itself is responsible for narrowing the query.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFieldset {
+}
@@ -1,12 +1,17 @@
 package ch.cern.todo.controller;
 
 import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.service.CategoryPayloadCache;
 import ch.cern.todo.service.TaskCategoryService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ch.cern.todo.exception.ResourceNotFoundException;
 
-import java.util.List;
+import java.util.Locale;
 
 /**
  * @author Dimitrios Milios
@@ -65,14 +70,37 @@ public class TaskCategoryController {
     }
 
     /**
-     * Retrieves a list of all task categories.
+     * Retrieves a list of all task categories. The list is served from a cached,
+     * pre-serialized payload; when the client accepts gzip or deflate the
+     * pre-compressed bytes are returned as-is. When page, size or sort is given,
+     * a single page is read from the database instead (see UserController for
+     * the pagination headers).
      * 
-     * @return ResponseEntity containing a list of all TaskCategory entities.
+     * @param acceptEncoding The Accept-Encoding request header (optional).
+     * @param pageable       The requested page and sort order.
+     * @param count          Whether to count the total number of categories.
+     * @param request        The current request.
+     * @return ResponseEntity containing the JSON list of all (or one page of)
+     *         TaskCategory entities.
      */
     @GetMapping
-    public ResponseEntity<List<TaskCategory>> getAllCategories() {
-        List<TaskCategory> categories = taskCategoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<?> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Pageable pageable, @RequestParam(defaultValue = "true") boolean count, WebRequest request) {
+        if (PageResponses.isPageRequest(request)) {
+            return PageResponses.ok(taskCategoryService.getCategories(pageable, count));
+        }
+        CategoryPayloadCache.Payload payload = taskCategoryService.getAllCategoriesPayload();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (payload.getGzip() != null && accepts(acceptEncoding, "gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        if (payload.getDeflate() != null && accepts(acceptEncoding, "deflate")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "deflate").body(payload.getDeflate());
+        }
+        return response.body(payload.getJson());
     }
 
     /**
@@ -89,4 +117,36 @@ public class TaskCategoryController {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with ID: " + id));
 
     }
+
+    /**
+     * Checks whether an Accept-Encoding header allows the given coding, honouring
+     * an explicit q=0.
+     * 
+     * @param acceptEncoding The Accept-Encoding header value (can be null).
+     * @param coding         The content coding to look for.
+     * @return True if the coding is acceptable, false otherwise.
+     */
+    private static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = entry.trim().split(";");
+            if (!parts[0].trim().equals(coding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
\ No newline at end of file
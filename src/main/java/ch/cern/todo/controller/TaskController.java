@@ -1,16 +1,30 @@
 package ch.cern.todo.controller;
 
+import ch.cern.todo.dto.TaskBulkUpdateDTO;
 import ch.cern.todo.dto.TaskDTO;
-import ch.cern.todo.exception.ResourceNotFoundException;
+import ch.cern.todo.dto.TaskField;
 import ch.cern.todo.model.Task;
-import ch.cern.todo.model.User;
-import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.ratelimit.LongRunning;
+import ch.cern.todo.ratelimit.RateLimitCost;
+import ch.cern.todo.service.AsyncTaskSearchService;
+import ch.cern.todo.service.TaskBulkProcessor;
+import ch.cern.todo.service.TaskImporter;
 import ch.cern.todo.service.TaskService;
+import ch.cern.todo.service.TaskWriteBehindQueue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @author Dimitrios Milios
@@ -28,7 +42,19 @@ public class TaskController {
     private TaskService taskService;
 
     @Autowired
-    private UserRepository userRepository;
+    private AsyncTaskSearchService asyncTaskSearchService;
+
+    @Autowired
+    private TaskWriteBehindQueue taskWriteBehindQueue;
+
+    @Autowired
+    private TaskBulkProcessor taskBulkProcessor;
+
+    @Autowired
+    private TaskImporter taskImporter;
+
+    @Value("${todo.write-behind.ack-timeout-ms:10000}")
+    private long ackTimeoutMillis;
 
     /**
      * Retrieves a list of all tasks.
@@ -36,10 +62,29 @@ public class TaskController {
      * @return A list of all Task entities.
      */
     @GetMapping
+    @RateLimitCost(10)
     public List<Task> getAllTasks() {
         return taskService.getAllTasks();
     }
 
+    /**
+     * Retrieves all tasks as TaskDTOs with only the requested fields, e.g.
+     * fields=id,name,deadline. Only the selected columns are queried.
+     * 
+     * @param fields Comma-separated TaskDTO properties (see TaskField).
+     * @return A list of TaskDTOs with only the selected fields.
+     */
+    @GetMapping(params = "fields")
+    @RateLimitCost(10)
+    @SparseFieldset
+    public List<TaskDTO> getAllTasks(@RequestParam String fields) {
+        Set<TaskField> selected = TaskField.parse(fields);
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be selected");
+        }
+        return taskService.getAllTasks(selected);
+    }
+
     /**
      * Creates a new task.
      * 
@@ -76,16 +121,124 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Moves the selected hot tasks to another category and/or user in one
+     * parallel bulk operation, e.g. a re-categorization
+     * {"categoryId": 3, "newCategoryId": 5} or an overdue sweep
+     * {"overdueBefore": "2025-01-01T00:00:00", "newUserId": 2}.
+     * 
+     * @param update The selection of tasks and their new category and/or user.
+     * @return The numbers of selected and updated tasks; 400 Bad Request if no
+     *         selection filter (category, user or overdue time) or no new
+     *         category or user is given, 404 Not Found if it does not exist.
+     */
+    @PostMapping("/bulk-update")
+    @RateLimitCost(10)
+    @LongRunning
+    public TaskBulkProcessor.Result bulkUpdate(@RequestBody TaskBulkUpdateDTO update) {
+        return taskBulkProcessor.update(update);
+    }
+
+    /**
+     * Imports tasks from an uploaded CSV (text/csv) or NDJSON
+     * (application/x-ndjson) file. The request body is streamed into the
+     * database in batches, so the file size is not limited by the memory.
+     * 
+     * @param contentType The content type of the file.
+     * @param body        The content of the file, UTF-8 encoded.
+     * @return The numbers of read, imported and rejected records, with the
+     *         first row errors; 400 Bad Request if the CSV header is invalid.
+     */
+    @PostMapping(path = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @RateLimitCost(10)
+    @LongRunning
+    public TaskImporter.Report importTasks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        return taskImporter.importTasks(body, TaskImporter.Format.forContentType(contentType));
+    }
+
+    /**
+     * Creates a new task through the write-behind queue (asynchronous write
+     * mode). With ack=queued the request returns as soon as the task is validated
+     * and queued; with ack=durable it returns once the task has been committed.
+     * 
+     * @param task The Task object to create (sent as JSON in the request body).
+     * @param ack  The acknowledgement mode: queued or durable.
+     * @return 202 Accepted (queued) or the created Task entity (durable); 503
+     *         Service Unavailable with Retry-After if the queue is full.
+     */
+    @PostMapping(params = "ack")
+    @LongRunning
+    public CompletableFuture<ResponseEntity<Task>> createTaskQueued(@RequestBody Task task,
+            @RequestParam String ack) {
+        return acknowledge(ack, () -> taskWriteBehindQueue.create(task), ResponseEntity::ok);
+    }
+
+    /**
+     * Updates an existing task through the write-behind queue (asynchronous
+     * write mode).
+     * 
+     * @param id   The ID of the task to update.
+     * @param task The updated Task data (sent as JSON in the request body).
+     * @param ack  The acknowledgement mode: queued or durable.
+     * @return 202 Accepted (queued) or the updated Task entity (durable).
+     */
+    @PutMapping(path = "/{id}", params = "ack")
+    @LongRunning
+    public CompletableFuture<ResponseEntity<Task>> updateTaskQueued(@PathVariable Long id,
+            @RequestBody Task task, @RequestParam String ack) {
+        return acknowledge(ack, () -> taskWriteBehindQueue.update(id, task), ResponseEntity::ok);
+    }
+
+    /**
+     * Deletes a task through the write-behind queue (asynchronous write mode).
+     * 
+     * @param id  The ID of the task to delete.
+     * @param ack The acknowledgement mode: queued or durable.
+     * @return 202 Accepted (queued) or 204 No Content (durable).
+     */
+    @DeleteMapping(path = "/{id}", params = "ack")
+    @LongRunning
+    public CompletableFuture<ResponseEntity<Task>> deleteTaskQueued(@PathVariable Long id,
+            @RequestParam String ack) {
+        return acknowledge(ack, () -> taskWriteBehindQueue.delete(id), deleted -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Queues a mutation and acknowledges it according to the requested mode.
+     * 
+     * @param ack       The acknowledgement mode: queued or durable.
+     * @param mutation  Queues the mutation.
+     * @param committed Builds the response once the mutation is committed.
+     * @return The acknowledgement.
+     */
+    private CompletableFuture<ResponseEntity<Task>> acknowledge(String ack,
+            Supplier<CompletableFuture<Task>> mutation,
+            Function<Task, ResponseEntity<Task>> committed) {
+        if ("queued".equalsIgnoreCase(ack)) {
+            mutation.get();
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().build());
+        }
+        if ("durable".equalsIgnoreCase(ack)) {
+            return mutation.get().thenApply(committed).orTimeout(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        throw new IllegalArgumentException("Unknown ack mode (expected queued or durable): " + ack);
+    }
+
     /**
      * Retrieves a task by its ID.
      * 
-     * @param id The ID of the task to retrieve.
+     * @param id     The ID of the task to retrieve.
+     * @param fields Comma-separated TaskDTO properties to return (optional, all
+     *               by default).
      * @return ResponseEntity containing the TaskDTO if found; otherwise, a 404 Not
      *         Found response.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
-        return taskService.getTaskById(id)
+    @SparseFieldset
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id,
+            @RequestParam(required = false) String fields) {
+        return taskService.getTaskById(id, TaskField.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -93,30 +246,140 @@ public class TaskController {
     /**
      * Searches for tasks based on provided criteria.
      * 
-     * @param name        The task name (optional).
-     * @param description The task description (optional).
-     * @param deadlineStr The task deadline (yyyy-MM-dd format, optional).
-     * @param categoryId  The ID of the task category (optional).
-     * @param userId      The ID of the task's assigned user (optional).
-     * @return A list of TaskDTOs that match the search criteria.
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived (old completed or expired) tasks
+     *                        are searched as well (default false).
+     * @param fields          Comma-separated TaskDTO properties to return
+     *                        (optional, all by default).
+     * @return A list of TaskDTOs that match the search criteria, or 404 Not Found
+     *         if the given user does not exist.
      */
     @GetMapping("/search")
+    @RateLimitCost(5)
+    @SparseFieldset
     public ResponseEntity<List<TaskDTO>> searchTasks(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) String deadlineStr,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
+        List<TaskDTO> tasks = taskService.searchTasks(name, description, deadlineStr, categoryId, userId,
+                includeArchived, TaskField.parse(fields));
+        return ResponseEntity.ok(tasks);
+    }
 
-        @SuppressWarnings("unused")
-        User user = null;
-        if (userId != null) { // check for valid userId input
-            user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-        }
+    /**
+     * Counts the tasks matching the search criteria, without loading them.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are counted as well.
+     * @return A JSON object {"count": n}, or 404 Not Found if the given user does
+     *         not exist.
+     */
+    @GetMapping("/search/count")
+    @RateLimitCost(2)
+    public ResponseEntity<Map<String, Long>> countTasks(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String deadlineStr,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        long count = taskService.countTasks(name, description, deadlineStr, categoryId, userId, includeArchived);
+        return ResponseEntity.ok(Map.of("count", count));
+    }
 
-        List<TaskDTO> tasks = taskService.searchTasks(name, description, deadlineStr, categoryId, userId);
-        return ResponseEntity.ok(tasks);
+    /**
+     * Checks whether any task matches the search criteria, without loading it.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are considered as well.
+     * @return A JSON object {"exists": true|false}, or 404 Not Found if the given
+     *         user does not exist.
+     */
+    @GetMapping("/search/exists")
+    public ResponseEntity<Map<String, Boolean>> existsTasks(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String deadlineStr,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        boolean exists = taskService.existsTasks(name, description, deadlineStr, categoryId, userId,
+                includeArchived);
+        return ResponseEntity.ok(Map.of("exists", exists));
+    }
+
+    /**
+     * Existence check in HTTP terms: HEAD on the search URL answers 200 OK if
+     * any task matches and 404 Not Found otherwise, without a body and without
+     * running the search itself.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are considered as well.
+     * @return 200 OK if a task matches, 404 Not Found otherwise.
+     */
+    @RequestMapping(path = "/search", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headSearchTasks(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String deadlineStr,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        boolean exists = taskService.existsTasks(name, description, deadlineStr, categoryId, userId,
+                includeArchived);
+        return exists ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Searches for tasks asynchronously on the dedicated search executor, so that
+     * slow searches do not hold a request thread. The search is cancelled in the
+     * database once its deadline passes.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are searched as well.
+     * @param timeoutMs       The deadline for the search in milliseconds (optional).
+     * @return A future with the list of TaskDTOs that match the search criteria;
+     *         503 Service Unavailable with Retry-After if the search executor is
+     *         saturated or the deadline passes.
+     */
+    @GetMapping("/search/async")
+    @RateLimitCost(5)
+    @LongRunning
+    public CompletableFuture<ResponseEntity<List<TaskDTO>>> searchTasksAsync(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String deadlineStr,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) Long timeoutMs) {
+        return asyncTaskSearchService.searchTasks(name, description, deadlineStr, categoryId, userId,
+                includeArchived, timeoutMs)
+                .thenApply(ResponseEntity::ok);
     }
 
 }
\ No newline at end of file
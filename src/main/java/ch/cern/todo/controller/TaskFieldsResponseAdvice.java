@@ -0,0 +1,49 @@
+package ch.cern.todo.controller;
+
+import ch.cern.todo.dto.TaskField;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Narrows the JSON output of @SparseFieldset handlers to the TaskDTO
+ * properties listed in the fields request parameter, by installing the
+ * matching Jackson filter for the response. Without the parameter the default
+ * (pass-through) filter configured in JacksonConfig applies.
+ */
+@RestControllerAdvice(assignableTypes = TaskController.class)
+public class TaskFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+            MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        String fields = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("fields");
+        Set<TaskField> selected = TaskField.parse(fields);
+        if (selected.isEmpty()) {
+            return;
+        }
+        Set<String> properties = selected.stream().map(TaskField::getProperty).collect(Collectors.toSet());
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(TaskField.FILTER_ID,
+                SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
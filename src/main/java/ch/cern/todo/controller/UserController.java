@@ -2,6 +2,7 @@ package ch.cern.todo.controller;
 
 import ch.cern.todo.model.User;
 import ch.cern.todo.service.UserService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,15 +34,23 @@ public class UserController {
     }
 
     /**
-     * Retrieves a list of all users.
+     * Retrieves one page of users. Without page, size or sort parameters this is
+     * the first page in ID order, so a parameterless request no longer returns
+     * every user: clients walk the Link header (rel="next") or the
+     * X-Total-Count header to read the rest. A page's size defaults to and is
+     * capped by the spring.data.web.pageable.* settings; the total is returned
+     * in the X-Total-Count header unless count=false, which skips the COUNT
+     * query.
      * 
-     * @return A ResponseEntity containing a list of User objects and an HTTP status
-     *         code.
+     * @param pageable The requested page and sort order.
+     * @param count    Whether to count the total number of users.
+     * @return A ResponseEntity containing the page of User objects and the
+     *         pagination headers.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<User>> getAllUsers(Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
+        return PageResponses.ok(userService.getUsers(pageable, count));
     }
 
     /**
@@ -0,0 +1,113 @@
+package ch.cern.todo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Data Transfer Object (DTO) describing a bulk update of tasks: which hot tasks
+ * are selected (at least one filter is required; they are combined) and the
+ * category and/or user they are moved to. For example, a re-categorization
+ * selects a category and sets a new one; an overdue sweep selects the tasks
+ * still open before a time and moves them to another category or user.
+ */
+public class TaskBulkUpdateDTO {
+    private Long categoryId;
+    private Long userId;
+    private LocalDateTime overdueBefore;
+    private Long newCategoryId;
+    private Long newUserId;
+
+    /**
+     * Getter for the category filter.
+     * 
+     * @return The ID of the category whose tasks are selected, or null.
+     */
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Setter for the category filter.
+     * 
+     * @param categoryId The ID of the category whose tasks are selected.
+     */
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * Getter for the user filter.
+     * 
+     * @return The ID of the user whose tasks are selected, or null.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Setter for the user filter.
+     * 
+     * @param userId The ID of the user whose tasks are selected.
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Getter for the overdue filter.
+     * 
+     * @return The time before which open tasks are selected, or null.
+     */
+    public LocalDateTime getOverdueBefore() {
+        return overdueBefore;
+    }
+
+    /**
+     * Setter for the overdue filter: selects the open tasks with a deadline
+     * before the given time.
+     * 
+     * @param overdueBefore The overdue cutoff.
+     */
+    public void setOverdueBefore(LocalDateTime overdueBefore) {
+        this.overdueBefore = overdueBefore;
+    }
+
+    /**
+     * Getter for the category the selected tasks are moved to.
+     * 
+     * @return The ID of the new category, or null to keep the category.
+     */
+    public Long getNewCategoryId() {
+        return newCategoryId;
+    }
+
+    /**
+     * Setter for the category the selected tasks are moved to.
+     * 
+     * @param newCategoryId The ID of the new category.
+     */
+    public void setNewCategoryId(Long newCategoryId) {
+        this.newCategoryId = newCategoryId;
+    }
+
+    /**
+     * Getter for the user the selected tasks are assigned to.
+     * 
+     * @return The ID of the new user, or null to keep the user.
+     */
+    public Long getNewUserId() {
+        return newUserId;
+    }
+
+    /**
+     * Setter for the user the selected tasks are assigned to.
+     * 
+     * @param newUserId The ID of the new user.
+     */
+    public void setNewUserId(Long newUserId) {
+        this.newUserId = newUserId;
+    }
+}
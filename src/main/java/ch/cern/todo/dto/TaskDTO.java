@@ -1,5 +1,8 @@
 package ch.cern.todo.dto;
 
+import ch.cern.todo.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.time.LocalDateTime;
 
 /**
@@ -11,8 +14,10 @@ import java.time.LocalDateTime;
  * task information between layers
  * (e.g., service layer to controller layer) and for data exchange with clients
  * (e.g., REST API responses). This
- * class avoids including Hibernate proxies or unnecessary data.
+ * class avoids including Hibernate proxies or unnecessary data. Responses can
+ * be narrowed to some of the properties, see TaskField.
  */
+@JsonFilter(TaskField.FILTER_ID)
 public class TaskDTO {
     private Long id;
     private String name;
@@ -20,6 +25,7 @@ public class TaskDTO {
     private LocalDateTime deadline;
     private String categoryName; // Represents the name of the associated category
     private String userName; // Represents the username of the assigned user
+    private TaskStatus status;
 
     /**
      * Getter for the task ID.
@@ -129,4 +135,22 @@ public class TaskDTO {
     public void setUserName(String userName) {
         this.userName = userName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Getter for the task status.
+     * 
+     * @return The status of the task (COMPLETED or EXPIRED for archived tasks).
+     */
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for the task status.
+     * 
+     * @param status The status to set.
+     */
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+}
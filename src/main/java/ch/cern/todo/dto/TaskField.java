@@ -0,0 +1,77 @@
+package ch.cern.todo.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * The TaskDTO properties a client can select with the fields request
+ * parameter (sparse fieldsets), e.g. fields=id,name,deadline. Only the selected
+ * columns are queried, and the category and user tables are only joined when
+ * categoryName or userName is selected.
+ */
+public enum TaskField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    DEADLINE("deadline"),
+    CATEGORY_NAME("categoryName"),
+    USER_NAME("userName"),
+    STATUS("status");
+
+    /**
+     * ID of the Jackson filter declared on TaskDTO.
+     */
+    public static final String FILTER_ID = "taskFields";
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Getter for the JSON property name of the field.
+     *
+     * @return The property name.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of TaskDTO property names.
+     *
+     * @param fields The fields request parameter (can be null or blank).
+     * @return The selected fields, or an empty set if the parameter is absent.
+     * @throws IllegalArgumentException If an unknown field is given.
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(of(trimmed));
+            }
+        }
+        return selected;
+    }
+
+    private static TaskField of(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field '" + property + "'; expected any of "
+                + Arrays.stream(values()).map(TaskField::getProperty).toList());
+    }
+}
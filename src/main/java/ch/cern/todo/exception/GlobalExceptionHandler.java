@@ -1,10 +1,17 @@
 package ch.cern.todo.exception;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.util.concurrent.TimeoutException;
+
 /**
  * Global exception handler for handling exceptions thrown in the application.
  * This class uses @ControllerAdvice to globally handle exceptions across all
@@ -13,6 +20,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Value("${todo.search.async.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
     /**
      * Handles ResourceNotFoundException. This exception is typically thrown when a
      * requested resource (e.g., Task, User, Category)
@@ -54,6 +64,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Handles RateLimitExceededException. This exception is thrown when a client
+     * has used up its request budget.
+     * 
+     * @param ex The RateLimitExceededException that occurred.
+     * @return A ResponseEntity with HTTP status 429 (Too Many Requests) and a
+     *         Retry-After header.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles TaskRejectedException. This exception is thrown when a bounded
+     * executor (e.g. the asynchronous search executor) is saturated, or when the
+     * adaptive concurrency limit of the task API sheds a request.
+     * 
+     * @param ex The TaskRejectedException that occurred.
+     * @return A ResponseEntity with HTTP status 503 (Service Unavailable) and a
+     *         Retry-After header.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejected(TaskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Server is busy, please retry later.");
+    }
+
+    /**
+     * Handles exceeded request deadlines: the asynchronous search timing out, or
+     * the database cancelling a statement because of its query timeout.
+     * 
+     * @param ex The timeout exception that occurred.
+     * @return A ResponseEntity with HTTP status 503 (Service Unavailable) and a
+     *         Retry-After header.
+     */
+    @ExceptionHandler({ TimeoutException.class, QueryTimeoutException.class, TransactionTimedOutException.class })
+    public ResponseEntity<String> handleTimeout(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("The request did not complete within its deadline.");
+    }
+
     /**
      * Handles any other exception that is not explicitly handled by other exception
      * handlers.
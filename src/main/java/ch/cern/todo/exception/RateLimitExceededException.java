@@ -0,0 +1,32 @@
+package ch.cern.todo.exception;
+
+/**
+ * Custom exception class to indicate that a client has exceeded its request
+ * rate. Global exception handlers turn it into a 429 Too Many Requests response
+ * with a Retry-After header.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new RateLimitExceededException.
+     * 
+     * @param message           The detail message.
+     * @param retryAfterSeconds The number of seconds after which the client may
+     *                          retry.
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Getter for the number of seconds after which the client may retry.
+     * 
+     * @return The retry delay in seconds.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,191 @@
+package ch.cern.todo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Entity class representing an archived Task. Maps to the 'TASKS_ARCHIVE'
+ * database table. Archived tasks are written only by the TaskArchiver (which
+ * keeps the original task ID) and never change afterwards; the names of the
+ * category and user are copied so they can be listed without joins. Archived
+ * tasks are rarely read and are deliberately not second-level cached.
+ */
+@Entity
+@Immutable
+@Table(name = "TASKS_ARCHIVE")
+public class ArchivedTask {
+    @Id
+    @Column(name = "TASK_ID")
+    private Long id;
+
+    @Column(name = "TASK_NAME", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "TASK_DESCRIPTION", length = 255, nullable = false)
+    private String description;
+
+    @Column(name = "NAME_NORMALIZED", nullable = false, length = 100)
+    private String nameNormalized;
+
+    @Column(name = "DESCRIPTION_NORMALIZED", nullable = false, length = 255)
+    private String descriptionNormalized;
+
+    @Column(name = "DEADLINE", nullable = false)
+    private LocalDateTime deadline;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private TaskStatus status;
+
+    @Column(name = "COMPLETED_AT")
+    private LocalDateTime completedAt;
+
+    @Column(name = "CATEGORY_ID", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "CATEGORY_NAME")
+    private String categoryName;
+
+    @Column(name = "USER_ID", nullable = false)
+    private Long userId;
+
+    @Column(name = "USER_NAME")
+    private String userName;
+
+    @Column(name = "ARCHIVED_AT", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public ArchivedTask() {
+    }
+
+    /**
+     * Getter for the task ID (the ID the task had before it was archived).
+     * 
+     * @return The ID of the task.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Getter for the task name.
+     * 
+     * @return The name of the task.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the task description.
+     * 
+     * @return The description of the task.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Getter for the normalized task name (see SearchText).
+     * 
+     * @return The lower-cased, accent-folded name.
+     */
+    public String getNameNormalized() {
+        return nameNormalized;
+    }
+
+    /**
+     * Getter for the normalized task description (see SearchText).
+     * 
+     * @return The lower-cased, accent-folded description.
+     */
+    public String getDescriptionNormalized() {
+        return descriptionNormalized;
+    }
+
+    /**
+     * Getter for the task deadline.
+     * 
+     * @return The deadline of the task.
+     */
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Getter for the status the task was archived with (COMPLETED or EXPIRED).
+     * 
+     * @return The status of the task.
+     */
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Getter for the completion time of the task.
+     * 
+     * @return The time the task was completed, or null if it expired.
+     */
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Getter for the ID of the category the task belonged to.
+     * 
+     * @return The category ID.
+     */
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Getter for the name of the category the task belonged to.
+     * 
+     * @return The category name at the time of archiving.
+     */
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    /**
+     * Getter for the ID of the user the task was assigned to.
+     * 
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Getter for the name of the user the task was assigned to.
+     * 
+     * @return The username at the time of archiving.
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Getter for the time the task was archived.
+     * 
+     * @return The archiving time.
+     */
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
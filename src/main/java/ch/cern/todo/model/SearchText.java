@@ -0,0 +1,48 @@
+package ch.cern.todo.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Normalization of searchable text: lower-cased and accent-folded, so that
+ * "Café" and "CAFE" both become "cafe". Tasks store their name and description
+ * in this form in shadow columns, and search terms are normalized the same
+ * way, so that case- and accent-insensitive searches compare plain columns
+ * instead of calling LOWER() on every row.
+ *
+ * Accents are folded by decomposing the text (NFD), dropping the combining
+ * marks and composing what is left again (NFC): scripts whose characters
+ * decompose into several letters, such as Hangul syllables into their jamo,
+ * keep their length and only match whole characters.
+ *
+ * The database migrations that backfill the shadow columns carry their own
+ * copy of this folding, so that changing it here never changes what an
+ * existing migration does; a change needs a new migration re-normalizing the
+ * stored rows.
+ */
+public final class SearchText {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    /**
+     * Normalizes text for searching.
+     *
+     * @param text The text to normalize (can be null).
+     * @return The lower-cased, accent-folded text, or null if text is null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return Normalizer.normalize(COMBINING_MARKS.matcher(decomposed).replaceAll(""), Normalizer.Form.NFC);
+    }
+}
@@ -1,6 +1,11 @@
 package ch.cern.todo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 /**
@@ -9,10 +14,14 @@ import java.time.LocalDateTime;
 
 /**
  * Entity class representing a Task in the system. Maps to the 'TASKS' database
- * table.
+ * table. The name and description are also stored normalized (see SearchText)
+ * for case- and accent-insensitive searches; the normalized columns are kept
+ * in sync by the setters and are not part of the JSON representation.
  */
 @Entity
 @Table(name = "TASKS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Tasks change often; never serve stale entries
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +34,12 @@ public class Task {
     @Column(name = "TASK_DESCRIPTION", length = 255, nullable = false)
     private String description;
 
+    @Column(name = "NAME_NORMALIZED", nullable = false, length = 100)
+    private String nameNormalized;
+
+    @Column(name = "DESCRIPTION_NORMALIZED", nullable = false, length = 255)
+    private String descriptionNormalized;
+
     @Column(name = "DEADLINE", nullable = false)
     private LocalDateTime deadline;
 
@@ -37,6 +52,15 @@ public class Task {
     // @Column(name = "USER_ID", insertable = false, updatable = false) // Add index
     private User user;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private TaskStatus status = TaskStatus.OPEN;
+
+    // Set by TaskService when the status changes, never taken from a client.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "COMPLETED_AT")
+    private LocalDateTime completedAt;
+
     /**
      * Default constructor for JPA.
      */
@@ -53,8 +77,8 @@ public class Task {
      * @param user        The user assigned to the task.
      */
     public Task(String name, String description, LocalDateTime deadline, TaskCategory category, User user) {
-        this.name = name;
-        this.description = description;
+        setName(name);
+        setDescription(description);
         this.deadline = deadline;
         this.category = category;
         this.user = user;
@@ -94,6 +118,7 @@ public class Task {
      */
     public void setName(String name) {
         this.name = name;
+        this.nameNormalized = SearchText.normalize(name);
     }
 
     /**
@@ -112,6 +137,27 @@ public class Task {
      */
     public void setDescription(String description) {
         this.description = description;
+        this.descriptionNormalized = SearchText.normalize(description);
+    }
+
+    /**
+     * Getter for the normalized task name.
+     * 
+     * @return The lower-cased, accent-folded name.
+     */
+    @JsonIgnore
+    public String getNameNormalized() {
+        return nameNormalized;
+    }
+
+    /**
+     * Getter for the normalized task description.
+     * 
+     * @return The lower-cased, accent-folded description.
+     */
+    @JsonIgnore
+    public String getDescriptionNormalized() {
+        return descriptionNormalized;
     }
 
     /**
@@ -168,6 +214,42 @@ public class Task {
         this.user = user;
     }
 
+    /**
+     * Getter for the task status.
+     * 
+     * @return The status of the task.
+     */
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for the task status.
+     * 
+     * @param status The status to set.
+     */
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for the completion time of the task.
+     * 
+     * @return The time the task was completed, or null if it is not completed.
+     */
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Setter for the completion time of the task.
+     * 
+     * @param completedAt The completion time to set.
+     */
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
     /**
      * Helper method for combined search functionality. Checks if the task matches
      * specified criteria.
@@ -210,6 +292,7 @@ public class Task {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", deadline=" + deadline +
+                ", status=" + status +
                 ", user=" + user +
                 '}';
     }
@@ -1,6 +1,9 @@
 package ch.cern.todo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.HashSet;
 import java.util.Set;
 
@@ -16,6 +19,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  */
 @Entity
 @Table(name = "TASK_CATEGORIES")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE) // Small, rarely changing reference data
 public class TaskCategory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,14 +34,15 @@ public class TaskCategory {
     private String description;
 
     /**
-     * This is a bidirectional relationship. Using FetchType.EAGER to fetch tasks
-     * eagerly (all tasks of this category will be loaded at the same time)
+     * This is a bidirectional relationship. The tasks are fetched lazily: loading
+     * every task of a category together with the category would defeat the
+     * second-level cache and make each category lookup scale with its tasks.
      * The @JsonIgnore annotation prevents the tasks collection from being
      * serialized into JSON, which is important to avoid issues with circular
      * references and infinite recursion when serializing the object into JSON
      * format.
      */
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "category")
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "category")
     @JsonIgnore // This annotation prevents the tasks collection from being serialized along
                 // with TaskCategory objects.
     private Set<Task> tasks = new HashSet<>();
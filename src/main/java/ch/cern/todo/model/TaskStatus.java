@@ -0,0 +1,24 @@
+package ch.cern.todo.model;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Enumeration representing the lifecycle of a task.
+ */
+public enum TaskStatus {
+    /**
+     * The task is still to be done.
+     */
+    OPEN,
+    /**
+     * The task has been completed.
+     */
+    COMPLETED,
+    /**
+     * The task was never completed and its deadline passed long enough ago for it
+     * to be archived. Only found on archived tasks.
+     */
+    EXPIRED
+}
@@ -0,0 +1,147 @@
+package ch.cern.todo.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase,
+ * multiplicative decrease). The limiter tracks, per endpoint, the lowest
+ * latency seen in the current sampling window as the no-load baseline of that
+ * endpoint, and a smoothed ratio of recent latencies to the baselines of their
+ * endpoints. Comparing every request with its own endpoint keeps a mix of
+ * cheap and expensive requests from looking like queueing. When the smoothed
+ * ratio exceeds the configured tolerance the database is assumed to be
+ * queueing and the limit is cut; otherwise, while the limit is actually being
+ * used, it grows by one.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private double smoothedRatio;
+    private int samplesSinceDecrease;
+
+    /**
+     * Constructor for AdaptiveConcurrencyLimiter.
+     * 
+     * @param initialLimit The initial concurrency limit.
+     * @param minLimit     The lowest the limit may fall to.
+     * @param maxLimit     The highest the limit may grow to.
+     * @param tolerance    How many times the baseline latency is tolerated
+     *                     before the limit is reduced.
+     * @param windowSize   The number of samples of an endpoint after which
+     *                     its baseline latency is re-measured.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            int windowSize) {
+        if (minLimit <= 0 || minLimit > maxLimit || tolerance <= 1.0 || windowSize <= 0) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSize = windowSize;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tries to start a request.
+     * 
+     * @return True if the request may proceed; it must then be ended with
+     *         {@link #release(String, long)}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends a request started with {@link #tryAcquire()} and feeds its latency
+     * into the limit.
+     * 
+     * @param endpoint     The endpoint of the request, whose own baseline the
+     *                     latency is compared with.
+     * @param latencyNanos The latency of the request in nanoseconds.
+     */
+    public void release(String endpoint, long latencyNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        update(endpoint, latencyNanos, concurrent);
+    }
+
+    private synchronized void update(String endpoint, long latencyNanos, int concurrent) {
+        long baseline = baselines.computeIfAbsent(endpoint, e -> new Baseline()).sample(latencyNanos);
+        double ratio = (double) latencyNanos / Math.max(1, baseline);
+        smoothedRatio = smoothedRatio == 0 ? ratio : smoothedRatio + SMOOTHING * (ratio - smoothedRatio);
+
+        int current = limit;
+        samplesSinceDecrease++;
+        if (smoothedRatio > tolerance) {
+            // Cut at most once per "round" of requests, so that the requests
+            // already in flight under the old limit do not cut it again.
+            if (samplesSinceDecrease >= current) {
+                limit = Math.max(minLimit, (int) (current * DECREASE_FACTOR));
+                samplesSinceDecrease = 0;
+            }
+        } else if (concurrent * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    /**
+     * Getter for the current concurrency limit.
+     * 
+     * @return The limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Getter for the number of requests in flight.
+     * 
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The no-load latency of one endpoint (guarded by the limiter).
+     */
+    private final class Baseline {
+        private long latency = Long.MAX_VALUE;
+        private long windowMin = Long.MAX_VALUE;
+        private int windowSamples;
+
+        private long sample(long latencyNanos) {
+            windowMin = Math.min(windowMin, latencyNanos);
+            if (++windowSamples >= windowSize) {
+                // Re-measure the baseline so that it follows lasting changes (e.g. a
+                // grown table) instead of sticking to a historical minimum.
+                latency = windowMin;
+                windowMin = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            return Math.min(latency, windowMin);
+        }
+    }
+}
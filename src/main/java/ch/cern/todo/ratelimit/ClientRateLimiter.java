@@ -0,0 +1,85 @@
+package ch.cern.todo.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Per-client rate limiter holding one {@link TokenBucket} per authenticated
+ * principal. Buckets are created on first use; once the number of buckets
+ * passes the configured bound, buckets that have refilled completely (idle
+ * clients) are dropped, as they are indistinguishable from a new one.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final long capacity;
+    private final double tokensPerSecond;
+    private final int maxClients;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for ClientRateLimiter.
+     * 
+     * @param capacity        The burst size (tokens) of every client.
+     * @param tokensPerSecond The sustained rate (tokens per second) of every
+     *                        client.
+     * @param maxClients      The number of buckets above which idle buckets are
+     *                        evicted.
+     * @param meterRegistry   The registry the bucket count gauge is registered
+     *                        with.
+     */
+    public ClientRateLimiter(@Value("${todo.ratelimit.capacity:60}") long capacity,
+            @Value("${todo.ratelimit.tokens-per-second:20}") double tokensPerSecond,
+            @Value("${todo.ratelimit.max-clients:10000}") int maxClients,
+            MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.tokensPerSecond = tokensPerSecond;
+        this.maxClients = maxClients;
+        Gauge.builder("todo.ratelimit.clients", buckets, ConcurrentMap::size)
+                .description("Number of clients with a rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tries to take tokens from the bucket of a client.
+     * 
+     * @param client The client key (principal name).
+     * @param tokens The cost of the request.
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds
+     *         until it would be.
+     */
+    public long tryConsume(String client, int tokens) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                buckets.values().removeIf(b -> b.isFull(now));
+            }
+            bucket = buckets.computeIfAbsent(client, c -> new TokenBucket(capacity, tokensPerSecond, now));
+        }
+        return bucket.tryConsume(tokens, now);
+    }
+
+    /**
+     * Gives back tokens taken from the bucket of a client for a request that
+     * was then rejected for another reason.
+     * 
+     * @param client The client key (principal name).
+     * @param tokens The cost of the request.
+     */
+    public void refund(String client, int tokens) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            bucket.refund(tokens);
+        }
+    }
+}
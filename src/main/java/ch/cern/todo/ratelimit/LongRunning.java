@@ -0,0 +1,22 @@
+package ch.cern.todo.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Marks a handler method whose latency says nothing about the load of the
+ * database: streaming imports, bulk updates, and requests waiting for a
+ * deadline or a write-behind batch. Requests to such handlers still pay their
+ * rate limit cost, but they take no slot under the adaptive concurrency limit
+ * and their latency is not fed into it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LongRunning {
+}
@@ -0,0 +1,26 @@
+package ch.cern.todo.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Declares how many rate limit tokens a request to the annotated handler
+ * method costs. Handlers without the annotation cost one token.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimitCost {
+
+    /**
+     * The number of tokens a request costs.
+     * 
+     * @return The cost in tokens.
+     */
+    int value();
+}
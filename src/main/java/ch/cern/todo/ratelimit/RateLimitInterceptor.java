@@ -0,0 +1,117 @@
+package ch.cern.todo.ratelimit;
+
+import ch.cern.todo.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Applies the per-client rate limit and the adaptive concurrency limit to the
+ * handlers it is registered for. A request first pays its cost (see
+ * {@link RateLimitCost}) from the bucket of its principal (429 when the bucket
+ * is empty), then needs a slot under the concurrency limit (503 when the
+ * limit is reached, and the cost is refunded). The slot is held until the
+ * request completes, including the asynchronous dispatch of deferred results,
+ * and the measured latency drives the limit, compared per handler method.
+ * Handlers marked {@link LongRunning} are only rate limited.
+ */
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".start";
+    private static final String ENDPOINT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".endpoint";
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final Counter allowed;
+    private final Counter throttled;
+    private final Counter shed;
+    private final Timer latency;
+
+    /**
+     * Constructor for RateLimitInterceptor.
+     * 
+     * @param clientRateLimiter  The per-client token buckets.
+     * @param concurrencyLimiter The adaptive concurrency limit.
+     * @param meterRegistry      The registry the limiter metrics are registered
+     *                           with.
+     */
+    public RateLimitInterceptor(ClientRateLimiter clientRateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            MeterRegistry meterRegistry) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.allowed = Counter.builder("todo.ratelimit.requests").tag("result", "allowed")
+                .description("Requests that passed the limiters").register(meterRegistry);
+        this.throttled = Counter.builder("todo.ratelimit.requests").tag("result", "throttled")
+                .description("Requests rejected by the per-client rate limit").register(meterRegistry);
+        this.shed = Counter.builder("todo.ratelimit.requests").tag("result", "shed")
+                .description("Requests rejected by the concurrency limit").register(meterRegistry);
+        this.latency = Timer.builder("todo.ratelimit.latency")
+                .description("Latency of requests admitted by the concurrency limit").register(meterRegistry);
+        Gauge.builder("todo.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("todo.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            // already admitted on the initial dispatch
+            return true;
+        }
+        RateLimitCost cost = method.getMethodAnnotation(RateLimitCost.class);
+        String client = clientKey(request);
+        int tokens = cost != null ? cost.value() : 1;
+        long waitNanos = clientRateLimiter.tryConsume(client, tokens);
+        if (waitNanos > 0) {
+            throttled.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException("Rate limit exceeded, please slow down.", retryAfter);
+        }
+        if (method.hasMethodAnnotation(LongRunning.class)) {
+            allowed.increment();
+            return true;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            clientRateLimiter.refund(client, tokens);
+            shed.increment();
+            throw new TaskRejectedException("Concurrency limit of " + concurrencyLimiter.getLimit() + " reached");
+        }
+        allowed.increment();
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        request.setAttribute(ENDPOINT_ATTRIBUTE, method.getMethod().toGenericString());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            long elapsed = System.nanoTime() - (Long) start;
+            latency.record(elapsed, TimeUnit.NANOSECONDS);
+            concurrencyLimiter.release((String) request.getAttribute(ENDPOINT_ATTRIBUTE), elapsed);
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : "anonymous:" + request.getRemoteAddr();
+    }
+}
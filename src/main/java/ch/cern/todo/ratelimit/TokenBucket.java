@@ -0,0 +1,80 @@
+package ch.cern.todo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Lock-free token bucket. The bucket is stored as a single "theoretical arrival
+ * time" (the generic cell rate algorithm): taking n tokens moves it forward by n
+ * emission intervals, and a request is allowed as long as it stays within the
+ * burst tolerance of the current time. Equivalent to a token bucket with the
+ * given capacity and refill rate, updated with a single CAS.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Constructor for TokenBucket. The bucket starts full.
+     * 
+     * @param capacity        The maximum number of tokens (burst size).
+     * @param tokensPerSecond The refill rate.
+     * @param nowNanos        The current time in nanoseconds.
+     */
+    public TokenBucket(long capacity, double tokensPerSecond, long nowNanos) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and tokensPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstToleranceNanos = capacity * emissionIntervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tries to take tokens from the bucket.
+     * 
+     * @param tokens   The number of tokens to take.
+     * @param nowNanos The current time in nanoseconds.
+     * @return 0 if the tokens were taken, otherwise the number of nanoseconds
+     *         until enough tokens will be available.
+     */
+    public long tryConsume(int tokens, long nowNanos) {
+        long increment = tokens * emissionIntervalNanos;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + increment;
+            long excess = next - nowNanos - burstToleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back tokens taken for a request that was not served.
+     * 
+     * @param tokens The number of tokens to give back.
+     */
+    public void refund(int tokens) {
+        theoreticalArrival.addAndGet(-tokens * emissionIntervalNanos);
+    }
+
+    /**
+     * Checks whether the bucket has refilled completely, i.e. whether it carries
+     * no state worth keeping.
+     * 
+     * @param nowNanos The current time in nanoseconds.
+     * @return True if the bucket is full.
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
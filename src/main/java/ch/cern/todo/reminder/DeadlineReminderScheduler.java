@@ -0,0 +1,317 @@
+package ch.cern.todo.reminder;
+
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskStatus;
+import ch.cern.todo.repository.TaskDeadline;
+import ch.cern.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Sends a reminder through the configured {@link ReminderSink} when the
+ * deadline of an open task is less than the lead time away.
+ * 
+ * Reminders are held in the delay queue of a ScheduledThreadPoolExecutor (a
+ * priority queue ordered by firing time) instead of polling the TASKS table.
+ * Only the upcoming window is kept in memory: every half window the next
+ * deadlines up to (now + lead + window) are loaded as (ID, deadline) pairs
+ * through the deadline index, so memory scales with the tasks due in the
+ * window rather than with the table. TaskService reports every committed
+ * write, and a task changed inside the loaded horizon is rescheduled or
+ * cancelled right away; one changed beyond it is picked up by a later window.
+ * When a reminder fires the task is re-read, so a reminder that was scheduled
+ * from a stale snapshot is moved to the current deadline or dropped.
+ * 
+ * Failed deliveries are retried with exponential backoff, up to a bounded
+ * number of attempts, without blocking the scheduler threads.
+ */
+@Component
+public class DeadlineReminderScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineReminderScheduler.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReminderSink sink;
+    private final boolean enabled;
+    private final Duration lead;
+    private final Duration window;
+    private final int threads;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    private final ConcurrentMap<Long, Reminder> scheduled = new ConcurrentHashMap<>();
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+
+    private volatile ScheduledThreadPoolExecutor executor;
+    private volatile LocalDateTime horizon;
+
+    /**
+     * Constructor for DeadlineReminderScheduler.
+     * 
+     * @param taskRepository     The repository the deadline windows are loaded
+     *                           from.
+     * @param transactionManager The transaction manager for the reads.
+     * @param sink               The destination of the reminders.
+     * @param enabled            Whether reminders are sent at all.
+     * @param lead               How long before the deadline the reminder is
+     *                           sent.
+     * @param window             The span of deadlines loaded at a time.
+     * @param threads            The number of scheduler (and delivery)
+     *                           threads.
+     * @param maxAttempts        The number of delivery attempts per reminder.
+     * @param retryBackoff       The delay before the first retry; doubled for
+     *                           every further one.
+     * @param meterRegistry      The registry for the reminder metrics.
+     */
+    public DeadlineReminderScheduler(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            ReminderSink sink,
+            @Value("${todo.reminder.enabled:true}") boolean enabled,
+            @Value("${todo.reminder.lead:PT15M}") Duration lead,
+            @Value("${todo.reminder.window:PT1H}") Duration window,
+            @Value("${todo.reminder.threads:2}") int threads,
+            @Value("${todo.reminder.max-attempts:5}") int maxAttempts,
+            @Value("${todo.reminder.retry-backoff:PT2S}") Duration retryBackoff,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sink = sink;
+        this.enabled = enabled;
+        this.lead = lead;
+        this.window = window;
+        this.threads = threads;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        Gauge.builder("todo.reminder.scheduled", scheduled, ConcurrentMap::size)
+                .description("Reminders waiting in the loaded window").register(meterRegistry);
+        this.delivered = Counter.builder("todo.reminder.deliveries").tag("result", "delivered")
+                .description("Reminders delivered").register(meterRegistry);
+        this.retried = Counter.builder("todo.reminder.deliveries").tag("result", "retried")
+                .description("Reminder deliveries retried").register(meterRegistry);
+        this.failed = Counter.builder("todo.reminder.deliveries").tag("result", "failed")
+                .description("Reminders dropped after the last attempt").register(meterRegistry);
+    }
+
+    /**
+     * Write hook: reschedules (or cancels) the reminder of a saved task once the
+     * surrounding transaction has committed.
+     * 
+     * @param task The saved task.
+     */
+    public void onTaskSaved(Task task) {
+        Long id = task.getId();
+        LocalDateTime deadline = task.getDeadline();
+        TaskStatus status = task.getStatus();
+        afterCommit(() -> taskChanged(id, deadline, status));
+    }
+
+    /**
+     * Write hook: cancels the reminder of a deleted task once the surrounding
+     * transaction has committed.
+     * 
+     * @param id The ID of the deleted task.
+     */
+    public void onTaskDeleted(Long id) {
+        afterCommit(() -> cancel(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!isRunning()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void taskChanged(Long id, LocalDateTime deadline, TaskStatus status) {
+        LocalDateTime loadedUntil = horizon;
+        if (status == TaskStatus.OPEN && deadline != null && loadedUntil != null
+                && deadline.isAfter(LocalDateTime.now()) && deadline.isBefore(loadedUntil)) {
+            schedule(id, deadline);
+        } else {
+            cancel(id);
+        }
+    }
+
+    /**
+     * Loads the next window of deadlines. The horizon is moved before the query
+     * runs, so a task written concurrently is either covered by its write hook
+     * or by the query (scheduling is idempotent per task).
+     */
+    private void loadNextWindow() {
+        LocalDateTime from = horizon;
+        LocalDateTime to = LocalDateTime.now().plus(lead).plus(window);
+        if (!to.isAfter(from)) {
+            return;
+        }
+        horizon = to;
+        try {
+            List<TaskDeadline> due = readOnlyTransaction.execute(
+                    status -> taskRepository.findOpenDeadlinesBetween(from, to));
+            due.forEach(task -> schedule(task.getId(), task.getDeadline()));
+            logger.debug("Loaded {} reminders for deadlines between {} and {}", due.size(), from, to);
+        } catch (RuntimeException e) {
+            // retry the same window next time
+            horizon = from;
+            logger.warn("Could not load task deadlines between {} and {}", from, to, e);
+        }
+    }
+
+    private void schedule(Long id, LocalDateTime deadline) {
+        ScheduledThreadPoolExecutor current = executor;
+        if (current == null) {
+            return;
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), deadline.minus(lead)).toMillis());
+        scheduled.compute(id, (key, existing) -> {
+            if (existing != null) {
+                if (existing.deadline.equals(deadline)) {
+                    return existing;
+                }
+                existing.future.cancel(false);
+            }
+            Reminder reminder = new Reminder(deadline);
+            reminder.future = current.schedule(() -> fire(id, reminder), delay, TimeUnit.MILLISECONDS);
+            return reminder;
+        });
+    }
+
+    private void cancel(Long id) {
+        Reminder existing = scheduled.remove(id);
+        if (existing != null) {
+            existing.future.cancel(false);
+        }
+    }
+
+    private void fire(Long id, Reminder reminder) {
+        scheduled.remove(id, reminder);
+        try {
+            TaskReminder current = readOnlyTransaction.execute(status -> taskRepository.findById(id)
+                    .filter(task -> task.getStatus() == TaskStatus.OPEN)
+                    .map(task -> new TaskReminder(task.getId(), task.getName(), task.getDeadline(),
+                            task.getUser() != null ? task.getUser().getUsername() : null,
+                            task.getCategory() != null ? task.getCategory().getName() : null))
+                    .orElse(null));
+            if (current == null) {
+                return;
+            }
+            if (!Objects.equals(current.getDeadline(), reminder.deadline)) {
+                taskChanged(id, current.getDeadline(), TaskStatus.OPEN);
+                return;
+            }
+            deliver(current, 1);
+        } catch (RuntimeException e) {
+            logger.warn("Could not prepare the reminder of task {}", id, e);
+        }
+    }
+
+    private void deliver(TaskReminder reminder, int attempt) {
+        try {
+            sink.deliver(reminder);
+            delivered.increment();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            ScheduledThreadPoolExecutor current = executor;
+            if (attempt >= maxAttempts || current == null) {
+                failed.increment();
+                logger.warn("Giving up on the reminder of task {} after {} attempts: {}", reminder.getTaskId(),
+                        attempt, e.getMessage());
+                return;
+            }
+            retried.increment();
+            long backoff = retryBackoff.toMillis() << Math.min(attempt - 1, 16);
+            current.schedule(() -> deliver(reminder, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Getter for the number of reminders waiting in the loaded window.
+     * 
+     * @return The number of scheduled reminders.
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || executor != null) {
+            return;
+        }
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "task-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        horizon = LocalDateTime.now();
+        executor = pool;
+        long reload = Math.max(1, window.toMillis() / 2);
+        pool.scheduleWithFixedDelay(this::loadNextWindow, 0, reload, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        ScheduledThreadPoolExecutor pool = executor;
+        executor = null;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        scheduled.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * A scheduled reminder: the deadline it was scheduled for and its timer.
+     */
+    private static final class Reminder {
+        private final LocalDateTime deadline;
+        private ScheduledFuture<?> future;
+
+        private Reminder(LocalDateTime deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ch.cern.todo.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Reminder sink that writes reminders to the application log. This is the
+ * default sink (todo.reminder.sink=log).
+ */
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void deliver(TaskReminder reminder) {
+        logger.info("Deadline approaching: {}", reminder);
+    }
+}
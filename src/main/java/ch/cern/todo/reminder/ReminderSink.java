@@ -0,0 +1,21 @@
+package ch.cern.todo.reminder;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Destination of deadline reminders. A delivery that throws is retried by the
+ * {@link DeadlineReminderScheduler} with backoff, up to the configured number
+ * of attempts, so implementations should not retry themselves.
+ */
+public interface ReminderSink {
+
+    /**
+     * Delivers a reminder.
+     * 
+     * @param reminder The reminder to deliver.
+     * @throws Exception If the delivery failed and should be retried.
+     */
+    void deliver(TaskReminder reminder) throws Exception;
+}
@@ -0,0 +1,89 @@
+package ch.cern.todo.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Reminder that the deadline of a task is approaching, as delivered to a
+ * {@link ReminderSink} (and serialized as the webhook payload).
+ */
+public class TaskReminder {
+
+    private final Long taskId;
+    private final String taskName;
+    private final LocalDateTime deadline;
+    private final String userName;
+    private final String categoryName;
+
+    /**
+     * Constructor for TaskReminder.
+     * 
+     * @param taskId       The ID of the task.
+     * @param taskName     The name of the task.
+     * @param deadline     The deadline of the task.
+     * @param userName     The username of the assigned user.
+     * @param categoryName The name of the task category.
+     */
+    public TaskReminder(Long taskId, String taskName, LocalDateTime deadline, String userName,
+            String categoryName) {
+        this.taskId = taskId;
+        this.taskName = taskName;
+        this.deadline = deadline;
+        this.userName = userName;
+        this.categoryName = categoryName;
+    }
+
+    /**
+     * Getter for the task ID.
+     * 
+     * @return The ID of the task.
+     */
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Getter for the task name.
+     * 
+     * @return The name of the task.
+     */
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * Getter for the task deadline.
+     * 
+     * @return The deadline of the task.
+     */
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Getter for the username of the assigned user.
+     * 
+     * @return The username.
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Getter for the name of the task category.
+     * 
+     * @return The category name.
+     */
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskReminder{taskId=" + taskId + ", taskName='" + taskName + "', deadline=" + deadline
+                + ", userName='" + userName + "'}";
+    }
+}
@@ -0,0 +1,54 @@
+package ch.cern.todo.reminder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Reminder sink that POSTs every reminder as JSON to a webhook URL
+ * (todo.reminder.sink=webhook). Any non-2xx response counts as a failed
+ * delivery.
+ */
+public class WebhookReminderSink implements ReminderSink {
+
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    /**
+     * Constructor for WebhookReminderSink.
+     * 
+     * @param url          The webhook URL.
+     * @param timeout      The connect and request timeout.
+     * @param objectMapper The ObjectMapper used to serialize the reminders.
+     */
+    public WebhookReminderSink(URI url, Duration timeout, ObjectMapper objectMapper) {
+        this.url = url;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void deliver(TaskReminder reminder) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(reminder)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + url + " responded with HTTP " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ch.cern.todo.repository;
+
+import ch.cern.todo.model.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Repository interface for archived tasks. Searches of the archive run through
+ * TaskSearchPlans and TaskProjectionRepository.
+ */
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    /**
+     * Copies tasks into the archive in a single INSERT ... SELECT. Open tasks are
+     * archived as EXPIRED, completed ones keep their status. The archiving
+     * condition of TaskRepository.findArchivableIds is repeated, so that a task
+     * reopened or given a new deadline since it was selected is left alone.
+     * 
+     * @param ids        The IDs of the tasks to copy.
+     * @param cutoff     The archiving cutoff.
+     * @param archivedAt The archiving time to record.
+     * @return The number of archived tasks.
+     */
+    @Modifying
+    @Query("""
+            insert into ArchivedTask (id, name, description, nameNormalized, descriptionNormalized, deadline,
+                    status, completedAt, categoryId, categoryName, userId, userName, archivedAt)
+            select t.id, t.name, t.description, t.nameNormalized, t.descriptionNormalized, t.deadline,
+                    case when t.status = ch.cern.todo.model.TaskStatus.COMPLETED
+                        then ch.cern.todo.model.TaskStatus.COMPLETED
+                        else ch.cern.todo.model.TaskStatus.EXPIRED end,
+                    t.completedAt, c.id, c.name, u.id, u.username, :archivedAt
+            from Task t join t.category c join t.user u
+            where t.id in :ids
+              and ((t.status = ch.cern.todo.model.TaskStatus.COMPLETED and t.completedAt < :cutoff)
+                or (t.status = ch.cern.todo.model.TaskStatus.OPEN and t.deadline < :cutoff))
+            """)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff,
+            @Param("archivedAt") LocalDateTime archivedAt);
+}
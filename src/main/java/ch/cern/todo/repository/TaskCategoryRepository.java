@@ -1,7 +1,12 @@
 package ch.cern.todo.repository;
 
 import ch.cern.todo.model.TaskCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -23,11 +28,21 @@ public interface TaskCategoryRepository extends JpaRepository<TaskCategory, Long
      * Finds a TaskCategory by its name. This method leverages Spring Data JPA's
      * query derivation capabilities
      * to automatically generate the necessary JPA query based on the method name.
+     * The result is kept in the query cache.
      * 
      * @param name The name of the TaskCategory to search for.
      * @return An Optional containing the TaskCategory if found, or an empty
      *         Optional if not.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<TaskCategory> findByName(String name);
 
+    /**
+     * Retrieves one slice of task categories without issuing a COUNT query.
+     * 
+     * @param pageable The page to retrieve.
+     * @return The requested slice of task categories.
+     */
+    Slice<TaskCategory> findAllBy(Pageable pageable);
+
 }
@@ -0,0 +1,28 @@
+package ch.cern.todo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Projection of a task on its ID and deadline, used to load reminder windows
+ * without materializing the tasks.
+ */
+public interface TaskDeadline {
+
+    /**
+     * Getter for the task ID.
+     * 
+     * @return The ID of the task.
+     */
+    Long getId();
+
+    /**
+     * Getter for the task deadline.
+     * 
+     * @return The deadline of the task.
+     */
+    LocalDateTime getDeadline();
+}
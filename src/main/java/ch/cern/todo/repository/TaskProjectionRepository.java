@@ -0,0 +1,116 @@
+package ch.cern.todo.repository;
+
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.dto.TaskField;
+import ch.cern.todo.model.ArchivedTask;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Runs task queries that select only the requested TaskDTO fields (sparse
+ * fieldsets) as tuples instead of loading entities. The category and user
+ * tables are only joined when their names are selected; filters on the
+ * category or user ID use the foreign key columns and need no join.
+ */
+@Repository
+public class TaskProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Finds hot tasks, selecting only the given fields.
+     *
+     * @param specification The filter (can be null to select all tasks).
+     * @param fields        The fields to select (not empty).
+     * @return The matching tasks, with all other fields left null.
+     */
+    public List<TaskDTO> findTasks(Specification<Task> specification, Set<TaskField> fields) {
+        return find(Task.class, specification, fields,
+                root -> root.join("category", JoinType.LEFT).get("name"),
+                root -> root.join("user", JoinType.LEFT).get("username"));
+    }
+
+    /**
+     * Finds archived tasks, selecting only the given fields. Archived tasks carry
+     * the category and user names themselves, so no join is ever needed.
+     *
+     * @param specification The filter (can be null to select all archived
+     *                      tasks).
+     * @param fields        The fields to select (not empty).
+     * @return The matching archived tasks, with all other fields left null.
+     */
+    public List<TaskDTO> findArchivedTasks(Specification<ArchivedTask> specification, Set<TaskField> fields) {
+        return find(ArchivedTask.class, specification, fields,
+                root -> root.get("categoryName"), root -> root.get("userName"));
+    }
+
+    private <T> List<TaskDTO> find(Class<T> entity, Specification<T> specification, Set<TaskField> fields,
+            Function<Root<T>, Path<String>> categoryName, Function<Root<T>, Path<String>> userName) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (TaskField field : fields) {
+            Path<?> path = switch (field) {
+                case CATEGORY_NAME -> categoryName.apply(root);
+                case USER_NAME -> userName.apply(root);
+                default -> root.get(field.getProperty());
+            };
+            selections.add(path.alias(field.getProperty()));
+        }
+        query.multiselect(selections);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            tasks.add(toTaskDTO(tuple, fields));
+        }
+        return tasks;
+    }
+
+    private static TaskDTO toTaskDTO(Tuple tuple, Set<TaskField> fields) {
+        TaskDTO dto = new TaskDTO();
+        for (TaskField field : fields) {
+            Object value = tuple.get(field.getProperty());
+            switch (field) {
+                case ID -> dto.setId((Long) value);
+                case NAME -> dto.setName((String) value);
+                case DESCRIPTION -> dto.setDescription((String) value);
+                case DEADLINE -> dto.setDeadline((LocalDateTime) value);
+                case CATEGORY_NAME -> dto.setCategoryName((String) value);
+                case USER_NAME -> dto.setUserName((String) value);
+                case STATUS -> dto.setStatus((TaskStatus) value);
+            }
+        }
+        return dto;
+    }
+}
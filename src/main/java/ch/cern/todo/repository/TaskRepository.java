@@ -1,12 +1,22 @@
 package ch.cern.todo.repository;
 
+import ch.cern.todo.model.SearchText;
 import ch.cern.todo.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Dimitrios Milios
@@ -21,14 +31,26 @@ import java.util.List;
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
     /**
-     * Finds Tasks whose names contain the given string (case-insensitive).
-     * Uses Spring Data JPA's query derivation to create the query automatically.
+     * Finds Tasks whose names contain the given string (case- and
+     * accent-insensitive). Compares against the normalized name column, so no
+     * function is applied per row.
      * 
      * @param name The substring to search for in task names.
      * @return A list of Tasks whose names contain the given substring
      *         (case-insensitive).
      */
-    List<Task> findByNameContainingIgnoreCase(String name);
+    default List<Task> findByNameContainingIgnoreCase(String name) {
+        return findByNameNormalizedContaining(SearchText.normalize(name));
+    }
+
+    /**
+     * Finds Tasks whose normalized names contain the given, already normalized,
+     * string.
+     * 
+     * @param nameNormalized The normalized substring (see SearchText).
+     * @return A list of matching Tasks.
+     */
+    List<Task> findByNameNormalizedContaining(String nameNormalized);
 
     /**
      * Finds Tasks associated with a specific category ID.
@@ -49,4 +71,111 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
      */
     List<Task> findByDeadlineBetween(LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Finds the IDs of tasks that are due for archiving: completed before the
+     * cutoff, or still open with a deadline before the cutoff. The rows are
+     * locked until the end of the transaction, so that they cannot change
+     * between being copied to the archive and deleted.
+     * 
+     * @param cutoff The archiving cutoff.
+     * @param limit  The maximum number of IDs to return (the batch size).
+     * @return The IDs of archivable tasks, in ID order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select t.id from Task t
+            where (t.status = ch.cern.todo.model.TaskStatus.COMPLETED and t.completedAt < :cutoff)
+               or (t.status = ch.cern.todo.model.TaskStatus.OPEN and t.deadline < :cutoff)
+            order by t.id
+            """)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Deletes archived tasks in a single bulk statement, repeating the archiving
+     * condition of findArchivableIds. Bulk deletes bypass the persistence
+     * context but evict the Task cache region.
+     * 
+     * @param ids    The IDs of the tasks to delete.
+     * @param cutoff The archiving cutoff.
+     * @return The number of deleted tasks.
+     */
+    @Modifying
+    @Query("""
+            delete from Task t
+            where t.id in :ids
+              and ((t.status = ch.cern.todo.model.TaskStatus.COMPLETED and t.completedAt < :cutoff)
+                or (t.status = ch.cern.todo.model.TaskStatus.OPEN and t.deadline < :cutoff))
+            """)
+    int deleteArchivable(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Finds the open tasks due in a window, as ID and deadline only. Backed by
+     * the IDX_TASKS_DEADLINE index.
+     * 
+     * @param from The start of the window (inclusive).
+     * @param to   The end of the window (exclusive).
+     * @return The IDs and deadlines of the open tasks due in the window.
+     */
+    @Query("""
+            select t.id as id, t.deadline as deadline from Task t
+            where t.deadline >= :from and t.deadline < :to
+              and t.status = ch.cern.todo.model.TaskStatus.OPEN
+            """)
+    List<TaskDeadline> findOpenDeadlinesBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Streams the normalized name and description of all tasks, in ID order.
+     * Must be consumed (and closed) inside a transaction.
+     * 
+     * @return The IDs and normalized texts of all tasks.
+     */
+    @Query("""
+            select t.id as id, t.nameNormalized as name, t.descriptionNormalized as description from Task t
+            order by t.id
+            """)
+    Stream<TaskSearchText> streamSearchTexts();
+
+    /**
+     * Finds the normalized name and description of the given tasks. Deleted
+     * tasks are missing from the result.
+     * 
+     * @param ids The IDs of the tasks.
+     * @return The IDs and normalized texts of the existing tasks.
+     */
+    @Query("""
+            select t.id as id, t.nameNormalized as name, t.descriptionNormalized as description from Task t
+            where t.id in :ids
+            """)
+    List<TaskSearchText> findSearchTexts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams the filterable attributes of all tasks, in ID order. The category
+     * and user IDs are read from the foreign key columns. Must be consumed (and
+     * closed) inside a transaction.
+     * 
+     * @return The snapshot rows of all tasks.
+     */
+    @Query("""
+            select t.id as id, t.nameNormalized as name, t.descriptionNormalized as description,
+                   t.deadline as deadline, t.category.id as categoryId, t.user.id as userId
+            from Task t
+            order by t.id
+            """)
+    Stream<TaskSnapshotRow> streamSnapshotRows();
+
+    /**
+     * Finds the filterable attributes of the given tasks. Deleted tasks are
+     * missing from the result.
+     * 
+     * @param ids The IDs of the tasks.
+     * @return The snapshot rows of the existing tasks.
+     */
+    @Query("""
+            select t.id as id, t.nameNormalized as name, t.descriptionNormalized as description,
+                   t.deadline as deadline, t.category.id as categoryId, t.user.id as userId
+            from Task t
+            where t.id in :ids
+            """)
+    List<TaskSnapshotRow> findSnapshotRows(@Param("ids") Collection<Long> ids);
+
 }
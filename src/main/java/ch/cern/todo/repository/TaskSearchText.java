@@ -0,0 +1,33 @@
+package ch.cern.todo.repository;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Projection of a task on its ID and normalized searchable text, used to build
+ * the in-memory trigram index without materializing the tasks.
+ */
+public interface TaskSearchText {
+
+    /**
+     * Getter for the task ID.
+     * 
+     * @return The ID of the task.
+     */
+    Long getId();
+
+    /**
+     * Getter for the normalized task name.
+     * 
+     * @return The normalized name.
+     */
+    String getName();
+
+    /**
+     * Getter for the normalized task description.
+     * 
+     * @return The normalized description.
+     */
+    String getDescription();
+}
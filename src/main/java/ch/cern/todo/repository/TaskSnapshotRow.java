@@ -0,0 +1,56 @@
+package ch.cern.todo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Projection of a task on the attributes the task search filters on, used to
+ * load the in-memory task snapshot without materializing the tasks.
+ */
+public interface TaskSnapshotRow {
+
+    /**
+     * Getter for the task ID.
+     * 
+     * @return The ID of the task.
+     */
+    Long getId();
+
+    /**
+     * Getter for the normalized task name.
+     * 
+     * @return The normalized name.
+     */
+    String getName();
+
+    /**
+     * Getter for the normalized task description.
+     * 
+     * @return The normalized description.
+     */
+    String getDescription();
+
+    /**
+     * Getter for the task deadline.
+     * 
+     * @return The deadline of the task.
+     */
+    LocalDateTime getDeadline();
+
+    /**
+     * Getter for the category ID.
+     * 
+     * @return The ID of the task's category.
+     */
+    Long getCategoryId();
+
+    /**
+     * Getter for the user ID.
+     * 
+     * @return The ID of the task's user.
+     */
+    Long getUserId();
+}
@@ -1,9 +1,13 @@
 package ch.cern.todo.repository;
 
 import ch.cern.todo.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * @author Dimitrios Milios
  */
@@ -18,4 +22,22 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Retrieves one slice of users. Unlike findAll(Pageable), no COUNT query is
+     * issued; one extra row is fetched to tell whether a next slice exists.
+     * 
+     * @param pageable The page to retrieve.
+     * @return The requested slice of users.
+     */
+    Slice<User> findAllBy(Pageable pageable);
+
+    /**
+     * Finds a User by its (unique) username.
+     * 
+     * @param username The username to search for.
+     * @return An Optional containing the User if found, or an empty Optional if
+     *         not.
+     */
+    Optional<User> findByUsername(String username);
 }
\ No newline at end of file
@@ -0,0 +1,398 @@
+package ch.cern.todo.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * In-memory structure over the hot tasks, built from the database and kept
+ * current from the IDs of the tasks the application writes. Base of
+ * TaskTextIndex and TaskSnapshot.
+ *
+ * The structure is built on startup by streaming the rows of all tasks in a
+ * background thread. The write hooks only carry task IDs: once the write has
+ * committed, the rows of these tasks are read back from the database in a new
+ * transaction and put into the structure, and the tasks that are gone are
+ * removed. The refreshes run one at a time, so the last one always leaves the
+ * committed state in the structure, whatever order the commit hooks of
+ * concurrent writes run in. Tasks written while a build runs are read again
+ * into the new structure before it replaces the old one. If a refresh fails,
+ * the structure is rebuilt; if a task does not fit (an ID out of range, or a
+ * structure at its size limit), it is dropped and the searches use the
+ * database.
+ *
+ * @param <S> The type of the structure; not thread-safe, guarded by a
+ *            read-write lock.
+ * @param <R> The type of the rows the structure is built from.
+ */
+abstract class CommittedTaskIndex<S, R> implements SmartLifecycle {
+
+    /**
+     * Largest number of task IDs read back per query.
+     */
+    private static final int REFRESH_CHUNK = 1000;
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate refreshTransaction;
+    private final boolean enabled;
+    private final String name;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // serializes the refreshes, so that they apply committed states in order
+    private final Lock refreshLock = new ReentrantLock();
+    // guarded by lock
+    private S structure;
+    private Set<Long> pending;
+
+    private volatile boolean ready;
+    private volatile boolean finished;
+    private volatile boolean running;
+
+    /**
+     * Constructor for CommittedTaskIndex.
+     *
+     * @param transactionManager The transaction manager for the reads.
+     * @param enabled            Whether the structure is built and used at all.
+     * @param name               The name of the structure in the logs, also
+     *                           naming the builder thread.
+     */
+    protected CommittedTaskIndex(PlatformTransactionManager transactionManager, boolean enabled, String name) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setReadOnly(true);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.name = name;
+        this.structure = empty();
+    }
+
+    /**
+     * Creates an empty structure.
+     */
+    protected abstract S empty();
+
+    /**
+     * Streams the rows of all tasks; called in a read-only transaction.
+     */
+    protected abstract Stream<R> streamAll();
+
+    /**
+     * Finds the rows of the given tasks; tasks that are gone are missing from
+     * the result. Called in a read-only transaction.
+     */
+    protected abstract List<R> findAll(List<Long> ids);
+
+    /**
+     * Getter for the task ID of a row.
+     */
+    protected abstract long id(R row);
+
+    /**
+     * Puts the row of a task into a structure, replacing the previous one.
+     *
+     * @return False if the row does not fit the structure: an ID is out of
+     *         range, or the structure is full.
+     */
+    protected abstract boolean put(S structure, R row);
+
+    /**
+     * Removes a task from a structure, if present.
+     */
+    protected abstract void remove(S structure, long id);
+
+    /**
+     * Logs a completed build.
+     *
+     * @param built  The new structure.
+     * @param millis The duration of the build.
+     */
+    protected abstract void logBuilt(S built, long millis);
+
+    /**
+     * Reads the current structure under the read lock.
+     *
+     * @param reader The function reading the structure.
+     * @return The result of the function.
+     */
+    protected <T> T read(Function<S, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(structure);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write hook: refreshes a saved task once the surrounding transaction has
+     * committed.
+     *
+     * @param id The ID of the saved task.
+     */
+    public void onTaskSaved(Long id) {
+        onTasksSaved(List.of(id));
+    }
+
+    /**
+     * Write hook: refreshes saved tasks once the surrounding transaction has
+     * committed.
+     *
+     * @param ids The IDs of the saved tasks.
+     */
+    public void onTasksSaved(Collection<Long> ids) {
+        afterCommit(List.copyOf(ids));
+    }
+
+    /**
+     * Write hook: removes a deleted task once the surrounding transaction has
+     * committed.
+     *
+     * @param id The ID of the deleted task.
+     */
+    public void onTaskDeleted(Long id) {
+        onTasksDeleted(List.of(id));
+    }
+
+    /**
+     * Write hook: removes deleted (or archived) tasks once the surrounding
+     * transaction has committed.
+     *
+     * @param ids The IDs of the deleted tasks.
+     */
+    public void onTasksDeleted(Collection<Long> ids) {
+        afterCommit(List.copyOf(ids));
+    }
+
+    private void afterCommit(List<Long> ids) {
+        if (!isRunning() || ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(ids);
+                }
+            });
+        } else {
+            refresh(ids);
+        }
+    }
+
+    /**
+     * Records the given tasks for the build in progress, if any, and reads their
+     * committed rows into the current structure. If the rows cannot be read,
+     * the structure is rebuilt.
+     */
+    private void refresh(List<Long> ids) {
+        refreshLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                if (pending != null) {
+                    pending.addAll(ids);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!ready) {
+                return;
+            }
+            List<R> rows = load(ids);
+            lock.writeLock().lock();
+            try {
+                if (ready && !apply(structure, ids, rows)) {
+                    disable();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh {} tasks in the {}; rebuilding it", ids.size(), name, e);
+            startRebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the rows of the given tasks in a new transaction (the hooks run
+     * after the commit of the writing one), in chunks of bounded IN lists.
+     */
+    private List<R> load(List<Long> ids) {
+        return refreshTransaction.execute(status -> {
+            List<R> rows = new ArrayList<>(ids.size());
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK) {
+                rows.addAll(findAll(ids.subList(from, Math.min(ids.size(), from + REFRESH_CHUNK))));
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Applies the committed rows of the given tasks to a structure: tasks
+     * without a row are removed.
+     *
+     * @return False if a row does not fit the structure.
+     */
+    private boolean apply(S target, Collection<Long> ids, List<R> rows) {
+        Set<Long> removed = new HashSet<>(ids);
+        for (R row : rows) {
+            removed.remove(id(row));
+            if (!put(target, row)) {
+                return false;
+            }
+        }
+        removed.forEach(id -> remove(target, id));
+        return true;
+    }
+
+    /**
+     * Rebuilds the structure from the database, e.g. after the tasks were
+     * changed outside of the application. The current structure keeps serving
+     * searches until the new one is complete.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return; // a build is already running
+            }
+            pending = new LinkedHashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long start = System.nanoTime();
+        S built = empty();
+        try {
+            boolean complete = Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+                try (Stream<R> rows = streamAll()) {
+                    return rows.allMatch(row -> put(built, row));
+                }
+            }));
+            // tasks written during the build are read again, with the refreshes held
+            // back until the new structure is in place
+            refreshLock.lock();
+            try {
+                List<Long> written;
+                lock.writeLock().lock();
+                try {
+                    written = List.copyOf(pending);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                List<R> rows = load(written);
+                lock.writeLock().lock();
+                try {
+                    complete &= apply(built, written, rows);
+                    pending = null;
+                    if (!complete) {
+                        disable();
+                        return;
+                    }
+                    structure = built;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            logBuilt(built, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+                ready = false;
+                structure = empty();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.warn("Could not build the {}; searches use the database", name, e);
+        } finally {
+            finished = true;
+        }
+    }
+
+    private void startRebuild() {
+        Thread builder = new Thread(this::rebuild, name.replace(' ', '-'));
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Stops using the structure (called with the write lock held) once a task
+     * does not fit it.
+     */
+    private void disable() {
+        ready = false;
+        structure = empty();
+        logger.warn("The tasks no longer fit the {}; searches use the database", name);
+    }
+
+    /**
+     * Getter for the readiness of the structure.
+     *
+     * @return True once the structure is built and answers searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Checks whether the initial build is still running. Unlike !isReady(), this
+     * turns false when the build failed or the structure was disabled.
+     *
+     * @return True until the initial build has finished, successfully or not.
+     */
+    public boolean isBuilding() {
+        return running && !finished;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        startRebuild();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
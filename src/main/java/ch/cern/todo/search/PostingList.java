@@ -0,0 +1,98 @@
+package ch.cern.todo.search;
+
+import java.util.Arrays;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Sorted set of task IDs backed by a growable int array: 4 bytes per posting,
+ * no boxing, and membership tests by binary search. Tasks are mostly created
+ * with increasing IDs, so adding is usually an append.
+ */
+final class PostingList {
+
+    private int[] ids = new int[2];
+    private int size;
+
+    /**
+     * Adds an ID if it is not present yet.
+     *
+     * @param id The ID to add.
+     */
+    void add(int id) {
+        if (size == 0 || id > ids[size - 1]) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    /**
+     * Removes an ID if it is present.
+     *
+     * @param id The ID to remove.
+     */
+    void remove(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Checks whether an ID is present.
+     *
+     * @param id The ID to look for.
+     * @return True if the ID is in the list.
+     */
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Getter for the number of IDs.
+     *
+     * @return The size of the list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the ID at a position.
+     *
+     * @param index The position, from 0 to size() - 1.
+     * @return The ID; IDs are in ascending order.
+     */
+    int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Estimates the heap used by the list: the object, the array header and
+     * the allocated capacity.
+     *
+     * @return The estimated size in bytes.
+     */
+    long estimateBytes() {
+        return 32 + 4L * ids.length;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+    }
+}
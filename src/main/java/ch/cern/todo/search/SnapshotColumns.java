@@ -0,0 +1,262 @@
+package ch.cern.todo.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Column-wise store of the filterable task attributes: one primitive array per
+ * attribute, indexed by row, with the normalized names and descriptions
+ * dictionary-encoded in string pools. A task takes 32 bytes of columns plus
+ * its share of the pools, instead of an entity with its dates, strings and
+ * associations.
+ *
+ * Filters are evaluated by scanning the columns in chunks, in parallel on the
+ * common fork-join pool for large snapshots. The scan loop only combines
+ * comparisons of primitive array elements with non-short-circuit operators,
+ * so it compiles to a branch-free loop the JIT can unroll and vectorize.
+ * Deleted rows are filled with the last row, so the columns stay dense.
+ *
+ * Not thread-safe; TaskSnapshot guards it with a read-write lock.
+ */
+final class SnapshotColumns {
+
+    private static final int CHUNK = 1 << 14;
+
+    private final StringPool names = new StringPool();
+    private final StringPool descriptions = new StringPool();
+
+    private long[] ids = new long[16];
+    private long[] deadlines = new long[16];
+    private int[] categoryIds = new int[16];
+    private int[] userIds = new int[16];
+    private int[] nameCodes = new int[16];
+    private int[] descriptionCodes = new int[16];
+    private int rows;
+    // row + 1 by task ID (0 if absent); task IDs are dense
+    private int[] rowsById = new int[16];
+
+    /**
+     * Adds or replaces the row of a task.
+     *
+     * @param id          The task ID (within the int range).
+     * @param name        The normalized name.
+     * @param description The normalized description.
+     * @param deadline    The deadline in epoch seconds (UTC).
+     * @param categoryId  The category ID (within the int range).
+     * @param userId      The user ID (within the int range).
+     */
+    void put(int id, String name, String description, long deadline, int categoryId, int userId) {
+        if (id >= rowsById.length) {
+            rowsById = Arrays.copyOf(rowsById, Math.max(id + 1, rowsById.length + (rowsById.length >> 1)));
+        }
+        int row = rowsById[id] - 1;
+        int nameCode = names.acquire(name);
+        int descriptionCode = descriptions.acquire(description);
+        if (row < 0) {
+            row = rows++;
+            if (row == ids.length) {
+                grow(row + (row >> 1) + 1);
+            }
+            rowsById[id] = row + 1;
+        } else {
+            names.release(nameCodes[row]);
+            descriptions.release(descriptionCodes[row]);
+        }
+        ids[row] = id;
+        deadlines[row] = deadline;
+        categoryIds[row] = categoryId;
+        userIds[row] = userId;
+        nameCodes[row] = nameCode;
+        descriptionCodes[row] = descriptionCode;
+    }
+
+    /**
+     * Removes the row of a task, if present.
+     *
+     * @param id The task ID.
+     */
+    void remove(long id) {
+        if (id >= rowsById.length || rowsById[(int) id] == 0) {
+            return;
+        }
+        int row = rowsById[(int) id] - 1;
+        rowsById[(int) id] = 0;
+        names.release(nameCodes[row]);
+        descriptions.release(descriptionCodes[row]);
+        int last = --rows;
+        if (row != last) {
+            ids[row] = ids[last];
+            deadlines[row] = deadlines[last];
+            categoryIds[row] = categoryIds[last];
+            userIds[row] = userIds[last];
+            nameCodes[row] = nameCodes[last];
+            descriptionCodes[row] = descriptionCodes[last];
+            rowsById[(int) ids[row]] = row + 1;
+        }
+    }
+
+    /**
+     * Prepares a filter for this snapshot; the name and description terms are
+     * evaluated once per distinct string.
+     *
+     * @param name          The normalized name substring (can be null).
+     * @param description   The normalized description substring (can be null).
+     * @param deadlineFrom  The lowest deadline, inclusive, in epoch seconds.
+     * @param deadlineUntil The highest deadline, exclusive, in epoch seconds.
+     * @param categoryId    The category ID (can be null).
+     * @param userId        The user ID (can be null).
+     * @return The filter.
+     */
+    Filter filter(String name, String description, long deadlineFrom, long deadlineUntil, Long categoryId,
+            Long userId) {
+        return new Filter(name != null ? names.containing(name) : null,
+                description != null ? descriptions.containing(description) : null,
+                deadlineFrom, deadlineUntil, categoryId, userId);
+    }
+
+    /**
+     * Counts the rows matching a filter.
+     *
+     * @param filter The filter.
+     * @return The number of matching rows.
+     */
+    long count(Filter filter) {
+        if (filter.empty) {
+            return 0;
+        }
+        return chunks().mapToLong(chunk -> count(filter, chunk * CHUNK, Math.min(rows, (chunk + 1) * CHUNK)))
+                .sum();
+    }
+
+    private long count(Filter filter, int from, int to) {
+        long count = 0;
+        for (int row = from; row < to; row++) {
+            if (matches(filter, row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the task IDs of the rows matching a filter.
+     *
+     * @param filter The filter.
+     * @param limit  The number of matches above which the search is abandoned.
+     * @return The matching task IDs in no particular order, or null if there are
+     *         more than limit.
+     */
+    long[] find(Filter filter, int limit) {
+        if (filter.empty) {
+            return new long[0];
+        }
+        AtomicInteger found = new AtomicInteger();
+        long[][] parts = chunks()
+                .mapToObj(chunk -> find(filter, chunk * CHUNK, Math.min(rows, (chunk + 1) * CHUNK), found, limit))
+                .toArray(long[][]::new);
+        if (found.get() > limit) {
+            return null;
+        }
+        long[] matches = new long[found.get()];
+        int length = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, matches, length, part.length);
+            length += part.length;
+        }
+        return matches;
+    }
+
+    private long[] find(Filter filter, int from, int to, AtomicInteger found, int limit) {
+        long[] matches = new long[8];
+        int length = 0;
+        for (int row = from; row < to; row++) {
+            if (matches(filter, row)) {
+                if (found.incrementAndGet() > limit) {
+                    return new long[0];
+                }
+                if (length == matches.length) {
+                    matches = Arrays.copyOf(matches, length * 2);
+                }
+                matches[length++] = ids[row];
+            }
+        }
+        return Arrays.copyOf(matches, length);
+    }
+
+    private boolean matches(Filter filter, int row) {
+        long deadline = deadlines[row];
+        return (deadline >= filter.deadlineFrom) & (deadline < filter.deadlineUntil)
+                & (filter.anyCategory | categoryIds[row] == filter.categoryId)
+                & (filter.anyUser | userIds[row] == filter.userId)
+                && (filter.names == null || filter.names[nameCodes[row]])
+                && (filter.descriptions == null || filter.descriptions[descriptionCodes[row]]);
+    }
+
+    private IntStream chunks() {
+        IntStream chunks = IntStream.range(0, (rows + CHUNK - 1) / CHUNK);
+        return rows > CHUNK ? chunks.parallel() : chunks;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+    }
+
+    /**
+     * Getter for the number of rows.
+     *
+     * @return The number of tasks in the snapshot.
+     */
+    int size() {
+        return rows;
+    }
+
+    /**
+     * Estimates the heap used by the columns and the string pools.
+     *
+     * @return The estimated size in bytes.
+     */
+    long estimateBytes() {
+        return 32L * ids.length + 4L * rowsById.length + names.estimateBytes() + descriptions.estimateBytes();
+    }
+
+    /**
+     * A filter prepared for one snapshot. Absent filters on the deadline,
+     * category and user match every row without a branch in the scan loop.
+     */
+    static final class Filter {
+        private final boolean[] names;
+        private final boolean[] descriptions;
+        private final long deadlineFrom;
+        private final long deadlineUntil;
+        private final boolean anyCategory;
+        private final int categoryId;
+        private final boolean anyUser;
+        private final int userId;
+        // an ID beyond the int range cannot match any row
+        private final boolean empty;
+
+        private Filter(boolean[] names, boolean[] descriptions, long deadlineFrom, long deadlineUntil,
+                Long categoryId, Long userId) {
+            this.names = names;
+            this.descriptions = descriptions;
+            this.deadlineFrom = deadlineFrom;
+            this.deadlineUntil = deadlineUntil;
+            this.anyCategory = categoryId == null;
+            this.categoryId = categoryId == null ? 0 : (int) (long) categoryId;
+            this.anyUser = userId == null;
+            this.userId = userId == null ? 0 : (int) (long) userId;
+            this.empty = (categoryId != null && categoryId != this.categoryId)
+                    || (userId != null && userId != this.userId);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ch.cern.todo.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Dictionary encoding of a string column: every distinct string is stored once
+ * and rows refer to it by an int code. Codes are reference counted, and the
+ * code of a string no row refers to any more is reused. Substring filters are
+ * evaluated once per distinct string into a mask indexed by code, which the
+ * column scan then looks up per row.
+ *
+ * Not thread-safe; TaskSnapshot guards it with a read-write lock.
+ */
+final class StringPool {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] strings = new String[16];
+    private int[] references = new int[16];
+    private int[] free = new int[16];
+    private int freeCount;
+    private int limit;
+
+    /**
+     * Returns the code of a string, adding it to the pool if needed, and counts
+     * one more reference to it.
+     *
+     * @param string The string.
+     * @return The code of the string.
+     */
+    int acquire(String string) {
+        Integer existing = codes.get(string);
+        if (existing != null) {
+            references[existing]++;
+            return existing;
+        }
+        int code = freeCount > 0 ? free[--freeCount] : limit++;
+        if (code == strings.length) {
+            int capacity = code + (code >> 1) + 1;
+            strings = Arrays.copyOf(strings, capacity);
+            references = Arrays.copyOf(references, capacity);
+        }
+        strings[code] = string;
+        references[code] = 1;
+        codes.put(string, code);
+        return code;
+    }
+
+    /**
+     * Drops one reference to a code; the string is removed with its last
+     * reference.
+     *
+     * @param code The code.
+     */
+    void release(int code) {
+        if (--references[code] == 0) {
+            codes.remove(strings[code]);
+            strings[code] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = code;
+        }
+    }
+
+    /**
+     * Evaluates a substring filter on every distinct string.
+     *
+     * @param term The substring.
+     * @return A mask indexed by code, true for the strings containing the term.
+     */
+    boolean[] containing(String term) {
+        boolean[] mask = new boolean[limit];
+        IntStream codes = IntStream.range(0, limit);
+        if (limit >= PARALLEL_THRESHOLD) {
+            codes = codes.parallel();
+        }
+        codes.forEach(code -> mask[code] = strings[code] != null && strings[code].contains(term));
+        return mask;
+    }
+
+    /**
+     * Getter for the number of distinct strings.
+     *
+     * @return The number of strings in the pool.
+     */
+    int size() {
+        return codes.size();
+    }
+
+    /**
+     * Estimates the heap used by the pool: the strings (Latin-1 compacted),
+     * their hash map entries and the code arrays.
+     *
+     * @return The estimated size in bytes.
+     */
+    long estimateBytes() {
+        long bytes = 4L * (strings.length + references.length + free.length) + 4L * strings.length;
+        for (int code = 0; code < limit; code++) {
+            if (strings[code] != null) {
+                // String + byte[] headers, the characters, and a HashMap node with its boxed code
+                bytes += 40 + strings[code].length() + 48;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,202 @@
+package ch.cern.todo.search;
+
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.repository.TaskSnapshotRow;
+import ch.cern.todo.service.TaskSearchCriteria;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Optional in-memory snapshot of the hot tasks, stored column-wise (see
+ * SnapshotColumns), that evaluates the task search filters without querying
+ * the database. Meant for read-mostly dashboards: counts and existence checks
+ * are answered from the snapshot alone, and searches get the IDs of the
+ * matching tasks, which the database then fetches by primary key with the
+ * full conditions. Enabled with todo.snapshot.enabled=true.
+ *
+ * Like TaskTextIndex, the snapshot is built on startup and kept current from
+ * the IDs of the tasks TaskService, TaskImporter, TaskBulkProcessor and
+ * TaskArchiver report, whose rows are read back once the write has committed
+ * (see CommittedTaskIndex). Counts may therefore lag a write by the time its
+ * commit hook takes to run. The snapshot is also rebuilt every
+ * todo.snapshot.rebuild-interval, which bounds the drift from writes the
+ * application did not see (or failed to read back).
+ *
+ * The snapshot answers null whenever it cannot help, and the search falls back
+ * to the other paths: before the first build completes, for terms containing
+ * LIKE wildcards, and for searches matching more than max-ids tasks.
+ */
+@Component
+public class TaskSnapshot extends CommittedTaskIndex<SnapshotColumns, TaskSnapshotRow> {
+
+    private final TaskRepository taskRepository;
+    private final int maxIds;
+
+    /**
+     * Constructor for TaskSnapshot.
+     *
+     * @param taskRepository     The repository the snapshot is built from.
+     * @param transactionManager The transaction manager for the build.
+     * @param enabled            Whether the snapshot is built and used at all.
+     * @param maxIds             The number of matching tasks above which a
+     *                           search is left to the database.
+     * @param meterRegistry      The registry for the snapshot metrics.
+     */
+    public TaskSnapshot(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            @Value("${todo.snapshot.enabled:false}") boolean enabled,
+            @Value("${todo.snapshot.max-ids:1000}") int maxIds,
+            MeterRegistry meterRegistry) {
+        super(transactionManager, enabled, "task snapshot");
+        this.taskRepository = taskRepository;
+        this.maxIds = maxIds;
+        Gauge.builder("todo.snapshot.tasks", this, TaskSnapshot::size)
+                .description("Tasks in the in-memory snapshot").register(meterRegistry);
+        Gauge.builder("todo.snapshot.size", this, TaskSnapshot::estimateBytes).baseUnit("bytes")
+                .description("Estimated heap used by the in-memory snapshot").register(meterRegistry);
+    }
+
+    /**
+     * Counts the hot tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The number of matching tasks, or null if the snapshot cannot
+     *         answer.
+     */
+    public Long count(TaskSearchCriteria criteria) {
+        if (!usable(criteria)) {
+            return null;
+        }
+        return read(columns -> columns.count(filter(columns, criteria)));
+    }
+
+    /**
+     * Finds the IDs of the hot tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The matching task IDs, or null if the snapshot cannot answer.
+     */
+    public List<Long> match(TaskSearchCriteria criteria) {
+        if (!usable(criteria)) {
+            return null;
+        }
+        long[] ids = read(columns -> columns.find(filter(columns, criteria), maxIds));
+        if (ids == null) {
+            return null;
+        }
+        List<Long> matches = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            matches.add(id);
+        }
+        return matches;
+    }
+
+    private boolean usable(TaskSearchCriteria criteria) {
+        return isReady() && !hasWildcard(criteria.getName()) && !hasWildcard(criteria.getDescription());
+    }
+
+    private static boolean hasWildcard(String term) {
+        return term != null && (term.indexOf('%') >= 0 || term.indexOf('_') >= 0);
+    }
+
+    private static SnapshotColumns.Filter filter(SnapshotColumns columns, TaskSearchCriteria criteria) {
+        long from = Long.MIN_VALUE;
+        long until = Long.MAX_VALUE;
+        if (criteria.getDeadline() != null) {
+            from = epochSecond(criteria.getDeadline().atStartOfDay());
+            until = epochSecond(criteria.getDeadline().plusDays(1).atStartOfDay());
+        }
+        return columns.filter(criteria.getName(), criteria.getDescription(), from, until,
+                criteria.getCategoryId(), criteria.getUserId());
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Override
+    protected SnapshotColumns empty() {
+        return new SnapshotColumns();
+    }
+
+    @Override
+    protected Stream<TaskSnapshotRow> streamAll() {
+        return taskRepository.streamSnapshotRows();
+    }
+
+    @Override
+    protected List<TaskSnapshotRow> findAll(List<Long> ids) {
+        return taskRepository.findSnapshotRows(ids);
+    }
+
+    @Override
+    protected long id(TaskSnapshotRow row) {
+        return row.getId();
+    }
+
+    @Override
+    protected boolean put(SnapshotColumns columns, TaskSnapshotRow row) {
+        long categoryId = row.getCategoryId() != null ? row.getCategoryId() : 0;
+        long userId = row.getUserId() != null ? row.getUserId() : 0;
+        if (row.getId() > Integer.MAX_VALUE || categoryId > Integer.MAX_VALUE || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+        columns.put(row.getId().intValue(), row.getName(), row.getDescription() != null ? row.getDescription() : "",
+                epochSecond(row.getDeadline()), (int) categoryId, (int) userId);
+        return true;
+    }
+
+    @Override
+    protected void remove(SnapshotColumns columns, long id) {
+        columns.remove(id);
+    }
+
+    @Override
+    protected void logBuilt(SnapshotColumns columns, long millis) {
+        logger.info("Loaded {} tasks into the in-memory snapshot ({} KB) in {} ms", columns.size(),
+                columns.estimateBytes() / 1024, millis);
+    }
+
+    /**
+     * Scheduled rebuild, reconciling the snapshot with the database in case a
+     * write was not reported or its refresh failed.
+     */
+    @Scheduled(initialDelayString = "${todo.snapshot.rebuild-interval:PT1H}",
+            fixedDelayString = "${todo.snapshot.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (isRunning()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Getter for the number of tasks in the snapshot.
+     *
+     * @return The number of tasks.
+     */
+    public int size() {
+        return read(SnapshotColumns::size);
+    }
+
+    /**
+     * Estimates the heap used by the snapshot.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long estimateBytes() {
+        return read(SnapshotColumns::estimateBytes);
+    }
+}
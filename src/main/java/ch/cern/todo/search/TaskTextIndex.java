@@ -0,0 +1,227 @@
+package ch.cern.todo.search;
+
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.repository.TaskSearchText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * In-memory trigram index over the normalized names and descriptions of the
+ * hot tasks, used to narrow substring searches to a short list of candidate
+ * IDs before the database is queried. A LIKE '%term%' cannot use a B-tree
+ * index and scans every row; the index instead intersects the posting lists
+ * of the term's trigrams and verifies the candidates against the indexed
+ * text, so the database only fetches the matching rows by primary key.
+ *
+ * The index is built on startup and kept current by TaskService, TaskImporter
+ * and TaskArchiver, which report the IDs of the tasks they wrote; the texts
+ * are then read back once the write has committed (see CommittedTaskIndex).
+ * Searches are still filtered by the database with the full conditions, so a
+ * task is at worst missing from a search for as long as its commit hook takes
+ * to run.
+ *
+ * match() answers null whenever the index cannot help, and the search falls
+ * back to SQL: before the first build completes, for terms shorter than a
+ * trigram or containing LIKE wildcards, and for broad terms matching more than
+ * max-candidates tasks.
+ *
+ * The index takes a few hundred bytes of heap per task, more with long
+ * descriptions (see the todo.search.trigram.size gauge). Once more than
+ * max-tasks tasks would be indexed, it turns itself off and all substring
+ * searches use the database.
+ */
+@Component
+public class TaskTextIndex extends CommittedTaskIndex<TaskTextIndex.Texts, TaskSearchText> {
+
+    private final TaskRepository taskRepository;
+    private final int maxCandidates;
+    private final int maxTasks;
+    private final Counter hits;
+    private final Counter fallbacks;
+
+    /**
+     * Constructor for TaskTextIndex.
+     *
+     * @param taskRepository     The repository the index is built from.
+     * @param transactionManager The transaction manager for the build.
+     * @param enabled            Whether the index is built and used at all.
+     * @param maxCandidates      The number of matching tasks above which the
+     *                           search is left to the database.
+     * @param maxTasks           The number of tasks above which the index is
+     *                           turned off.
+     * @param meterRegistry      The registry for the index metrics.
+     */
+    public TaskTextIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+            @Value("${todo.search.trigram.enabled:true}") boolean enabled,
+            @Value("${todo.search.trigram.max-candidates:1000}") int maxCandidates,
+            @Value("${todo.search.trigram.max-tasks:500000}") int maxTasks,
+            MeterRegistry meterRegistry) {
+        super(transactionManager, enabled, "task trigram index");
+        this.taskRepository = taskRepository;
+        this.maxCandidates = maxCandidates;
+        this.maxTasks = maxTasks;
+        Gauge.builder("todo.search.trigram.tasks", this, TaskTextIndex::size)
+                .description("Tasks in the trigram index").register(meterRegistry);
+        Gauge.builder("todo.search.trigram.size", this, TaskTextIndex::estimateBytes).baseUnit("bytes")
+                .description("Estimated heap used by the trigram index").register(meterRegistry);
+        this.hits = Counter.builder("todo.search.trigram").tag("result", "hit")
+                .description("Substring searches narrowed by the trigram index").register(meterRegistry);
+        this.fallbacks = Counter.builder("todo.search.trigram").tag("result", "fallback")
+                .description("Substring searches left to the database").register(meterRegistry);
+    }
+
+    /**
+     * Finds the IDs of the hot tasks whose normalized name and description
+     * contain the given terms.
+     *
+     * @param name        The normalized name term (can be null).
+     * @param description The normalized description term (can be null).
+     * @return The matching task IDs in ascending order, or null if the index
+     *         cannot answer and the database has to be searched.
+     */
+    public List<Long> match(String name, String description) {
+        boolean byName = indexable(name);
+        boolean byDescription = indexable(description);
+        if (!isReady() || !(byName || byDescription)) {
+            fallbacks.increment();
+            return null;
+        }
+        return read(texts -> {
+            PostingList[] nameLists = byName ? texts.names.postings(name) : null;
+            PostingList[] descriptionLists = byDescription ? texts.descriptions.postings(description) : null;
+            if ((nameLists != null && nameLists.length == 0)
+                    || (descriptionLists != null && descriptionLists.length == 0)) {
+                hits.increment();
+                return List.of();
+            }
+            // drive the intersection with the shortest posting list of either term
+            boolean driveByName = nameLists != null
+                    && (descriptionLists == null || nameLists[0].size() <= descriptionLists[0].size());
+            PostingList[] driver = driveByName ? nameLists : descriptionLists;
+            List<Long> ids = new ArrayList<>();
+            PostingList shortest = driver[0];
+            for (int i = 0; i < shortest.size(); i++) {
+                int id = shortest.get(i);
+                if (containsAll(driver, id) && (!byName || texts.names.contains(id, name))
+                        && (!byDescription || texts.descriptions.contains(id, description))) {
+                    if (ids.size() == maxCandidates) {
+                        fallbacks.increment();
+                        return null;
+                    }
+                    ids.add((long) id);
+                }
+            }
+            hits.increment();
+            return ids;
+        });
+    }
+
+    /**
+     * Checks whether a term can be looked up; terms containing LIKE wildcards
+     * are left to the database. A term that is not looked up still filters the
+     * database query.
+     */
+    private static boolean indexable(String term) {
+        return term != null && term.length() >= TrigramIndex.GRAM
+                && term.indexOf('%') < 0 && term.indexOf('_') < 0;
+    }
+
+    private static boolean containsAll(PostingList[] lists, int id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected Texts empty() {
+        return new Texts();
+    }
+
+    @Override
+    protected Stream<TaskSearchText> streamAll() {
+        return taskRepository.streamSearchTexts();
+    }
+
+    @Override
+    protected List<TaskSearchText> findAll(List<Long> ids) {
+        return taskRepository.findSearchTexts(ids);
+    }
+
+    @Override
+    protected long id(TaskSearchText text) {
+        return text.getId();
+    }
+
+    @Override
+    protected boolean put(Texts texts, TaskSearchText text) {
+        if (text.getId() > Integer.MAX_VALUE) {
+            return false;
+        }
+        int id = text.getId().intValue();
+        if (texts.names.size() >= maxTasks && !texts.names.contains(id)) {
+            return false;
+        }
+        texts.names.put(id, text.getName());
+        texts.descriptions.put(id, text.getDescription() != null ? text.getDescription() : "");
+        return true;
+    }
+
+    @Override
+    protected void remove(Texts texts, long id) {
+        if (id <= Integer.MAX_VALUE) {
+            texts.names.remove((int) id);
+            texts.descriptions.remove((int) id);
+        }
+    }
+
+    @Override
+    protected void logBuilt(Texts texts, long millis) {
+        logger.info("Indexed {} tasks for substring search ({} KB) in {} ms", texts.names.size(),
+                texts.estimateBytes() / 1024, millis);
+    }
+
+    /**
+     * Getter for the number of indexed tasks.
+     *
+     * @return The number of tasks in the index.
+     */
+    public int size() {
+        return read(texts -> texts.names.size());
+    }
+
+    /**
+     * Estimates the heap used by the index.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long estimateBytes() {
+        return read(Texts::estimateBytes);
+    }
+
+    /**
+     * The trigram indexes over the names and the descriptions of the tasks.
+     */
+    static final class Texts {
+        private final TrigramIndex names = new TrigramIndex();
+        private final TrigramIndex descriptions = new TrigramIndex();
+
+        private long estimateBytes() {
+            return names.estimateBytes() + descriptions.estimateBytes();
+        }
+    }
+}
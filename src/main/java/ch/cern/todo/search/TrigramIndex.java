@@ -0,0 +1,184 @@
+package ch.cern.todo.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Trigram index over one text field of the tasks. Every distinct run of three
+ * characters of a text maps to the posting list of the tasks containing it; a
+ * substring of at least three characters can only occur in tasks that appear
+ * in the posting lists of all of its trigrams. The text of every task is kept
+ * as well, so that candidates are verified exactly and updates remove the
+ * trigrams of the previous text. Texts are kept in an array indexed by task
+ * ID, as IDs are dense. Texts are expected in SearchText form.
+ * 
+ * Not thread-safe; TaskTextIndex guards it with a read-write lock.
+ */
+final class TrigramIndex {
+
+    /**
+     * Length of the grams; shorter search terms cannot use the index.
+     */
+    static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private String[] texts = new String[16];
+    private int size;
+
+    /**
+     * Indexes (or re-indexes) the text of a task.
+     *
+     * @param id   The task ID.
+     * @param text The normalized text.
+     */
+    void put(int id, String text) {
+        if (id >= texts.length) {
+            texts = Arrays.copyOf(texts, Math.max(id + 1, texts.length + (texts.length >> 1)));
+        }
+        String previous = texts[id];
+        texts[id] = text;
+        if (previous == null) {
+            size++;
+        } else {
+            if (previous.equals(text)) {
+                return;
+            }
+            for (long trigram : trigrams(previous)) {
+                removePosting(trigram, id);
+            }
+        }
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id The task ID.
+     */
+    void remove(int id) {
+        String previous = id < texts.length ? texts[id] : null;
+        if (previous != null) {
+            texts[id] = null;
+            size--;
+            for (long trigram : trigrams(previous)) {
+                removePosting(trigram, id);
+            }
+        }
+    }
+
+    /**
+     * Returns the posting lists a term's tasks must all appear in, smallest
+     * first.
+     *
+     * @param term The normalized search term, at least GRAM characters long.
+     * @return The posting lists, or an empty array if some trigram occurs in no
+     *         task (nothing can match).
+     */
+    PostingList[] postings(String term) {
+        long[] trigrams = trigrams(term);
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new PostingList[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        return lists;
+    }
+
+    /**
+     * Checks whether the text of a task contains a term.
+     *
+     * @param id   The task ID.
+     * @param term The normalized search term.
+     * @return True if the task is indexed and its text contains the term.
+     */
+    boolean contains(int id, String term) {
+        String text = id < texts.length ? texts[id] : null;
+        return text != null && text.contains(term);
+    }
+
+    /**
+     * Checks whether a task is indexed.
+     *
+     * @param id The task ID.
+     * @return True if the task has a text in the index.
+     */
+    boolean contains(int id) {
+        return id < texts.length && texts[id] != null;
+    }
+
+    /**
+     * Getter for the number of indexed tasks.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Estimates the heap used by the index: the text array and the texts
+     * (Latin-1 compacted), and the posting lists with their hash map entries.
+     *
+     * @return The estimated size in bytes.
+     */
+    long estimateBytes() {
+        long bytes = 8L * texts.length;
+        for (String text : texts) {
+            if (text != null) {
+                // String + byte[] headers and the characters
+                bytes += 40 + text.length();
+            }
+        }
+        for (PostingList list : postings.values()) {
+            // a HashMap node with its boxed trigram, and the list
+            bytes += 48 + list.estimateBytes();
+        }
+        return bytes;
+    }
+
+    private void removePosting(long trigram, int id) {
+        PostingList list = postings.get(trigram);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Computes the distinct trigrams of a text, each packed into a long (three
+     * 16-bit chars).
+     *
+     * @param text The text.
+     * @return The distinct trigrams in ascending order.
+     */
+    static long[] trigrams(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return distinct == count ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+}
@@ -0,0 +1,154 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.dto.TaskDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Runs task searches asynchronously on the bounded search executor. Each search
+ * gets a deadline, counted from its submission: the returned future fails with
+ * a TimeoutException once the deadline has passed, and the search itself is
+ * dropped from the executor queue if it has not started yet, or its running
+ * statement is cancelled in the database. A search that starts after its
+ * deadline is skipped; one that starts in time goes through the search
+ * coalescer first, and only if it actually runs, it does so in a read-only
+ * transaction whose timeout (the remaining time, rounded up to seconds) is
+ * turned into a JDBC query timeout as well.
+ */
+@Service
+public class AsyncTaskSearchService {
+
+    private final TaskService taskService;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolTaskExecutor searchExecutor;
+    private final long defaultTimeoutMillis;
+    private final long maxTimeoutMillis;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for AsyncTaskSearchService.
+     * 
+     * @param taskService          The service performing the search.
+     * @param transactionManager   The transaction manager used to apply the
+     *                             deadline as a transaction timeout.
+     * @param searchExecutor       The bounded executor the searches run on.
+     * @param defaultTimeoutMillis The deadline used when the client sets none.
+     * @param maxTimeoutMillis     The upper bound for client supplied deadlines.
+     */
+    public AsyncTaskSearchService(TaskService taskService, PlatformTransactionManager transactionManager,
+            @Qualifier("searchExecutor") ThreadPoolTaskExecutor searchExecutor,
+            @Value("${todo.search.async.default-timeout-ms:5000}") long defaultTimeoutMillis,
+            @Value("${todo.search.async.max-timeout-ms:20000}") long maxTimeoutMillis) {
+        this.taskService = taskService;
+        this.transactionManager = transactionManager;
+        this.searchExecutor = searchExecutor;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.maxTimeoutMillis = maxTimeoutMillis;
+    }
+
+    /**
+     * Submits a task search to the search executor.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are searched as well.
+     * @param timeoutMillis   The deadline for the search in milliseconds (optional,
+     *                        capped at the configured maximum).
+     * @return A future completing with the matching TaskDTOs, or exceptionally
+     *         with a TimeoutException when the deadline passes.
+     * @throws IllegalArgumentException If the timeout is not positive or the
+     *                                  deadline is not a valid date.
+     * @throws TaskRejectedException    If the search executor is saturated.
+     */
+    public CompletableFuture<List<TaskDTO>> searchTasks(String name, String description, String deadlineStr,
+            Long categoryId, Long userId, boolean includeArchived, Long timeoutMillis) {
+        long timeout = timeoutMillis == null ? defaultTimeoutMillis : timeoutMillis;
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeoutMs must be positive");
+        }
+        timeout = Math.min(timeout, maxTimeoutMillis);
+        // searches only share their execution with searches of the same timeout
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(name, description, deadlineStr, categoryId, userId,
+                includeArchived).withTimeout(timeout);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        CompletableFuture<List<TaskDTO>> result = new CompletableFuture<>();
+        AtomicReference<Session> running = new AtomicReference<>();
+        Future<?> search = searchExecutor.submit(() -> run(result, running, deadline, criteria));
+        result.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((tasks, e) -> {
+            if (e instanceof TimeoutException) {
+                // frees the queue slot of a search that has not started yet
+                search.cancel(false);
+                searchExecutor.getThreadPoolExecutor().purge();
+                Session session = running.get();
+                if (session != null) {
+                    session.cancelQuery();
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs a search on a worker thread, unless its deadline passed while it was
+     * queued.
+     */
+    private void run(CompletableFuture<List<TaskDTO>> result, AtomicReference<Session> running, long deadline,
+            TaskSearchCriteria criteria) {
+        long remaining = deadline - System.nanoTime();
+        if (result.isDone() || remaining <= 0) {
+            result.completeExceptionally(new TimeoutException("The search deadline passed while it was queued"));
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Transaction timeouts have second granularity; round up so the statement
+        // is never cancelled before the client deadline.
+        transaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999)));
+        // the transaction is only opened by the search that runs, not by the ones
+        // waiting for an identical search in the coalescer
+        TransactionOperations cancellable = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return transaction.execute(status -> {
+                    running.set(entityManager.unwrap(Session.class));
+                    try {
+                        return action.doInTransaction(status);
+                    } finally {
+                        running.set(null);
+                    }
+                });
+            }
+        };
+        try {
+            result.complete(taskService.searchTasks(criteria, cancellable));
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
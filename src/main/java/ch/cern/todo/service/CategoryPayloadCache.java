@@ -0,0 +1,163 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Caches the serialized (and pre-compressed) JSON payload of the category list.
+ * Categories are small and rarely change, so serving them becomes a plain
+ * memory copy. The cache is invalidated by TaskCategoryService on every write,
+ * both immediately and again once the surrounding transaction completes, so a
+ * concurrent reader can never pin the pre-commit state.
+ */
+@Component
+public class CategoryPayloadCache {
+
+    private final TaskCategoryRepository taskCategoryRepository;
+    private final ObjectMapper objectMapper;
+    private final long minCompressSize;
+
+    private final AtomicReference<Payload> cached = new AtomicReference<>();
+    private final WriteGeneration generation = new WriteGeneration(() -> cached.set(null));
+
+    /**
+     * Constructor for CategoryPayloadCache.
+     *
+     * @param taskCategoryRepository The repository the categories are loaded from.
+     * @param objectMapper           The application ObjectMapper used for
+     *                               serialization.
+     * @param minCompressSize        Payloads smaller than this are not compressed
+     *                               (shares the server compression threshold).
+     */
+    public CategoryPayloadCache(TaskCategoryRepository taskCategoryRepository, ObjectMapper objectMapper,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minCompressSize) {
+        this.taskCategoryRepository = taskCategoryRepository;
+        this.objectMapper = objectMapper;
+        this.minCompressSize = minCompressSize.toBytes();
+    }
+
+    /**
+     * Returns the current payload, loading and serializing the categories if the
+     * cache is empty or has been invalidated.
+     *
+     * @return The cached category payload.
+     */
+    public Payload get() {
+        Payload current = cached.get();
+        if (current != null && current.generation == generation.get()) {
+            return current;
+        }
+        long loadGeneration = generation.get();
+        Payload loaded = load(loadGeneration);
+        // A payload loaded while a write was in flight carries a stale generation
+        // and is simply rejected by the next get().
+        cached.set(loaded);
+        return loaded;
+    }
+
+    /**
+     * Invalidates the cached payload. When called inside a transaction the cache
+     * is invalidated once more after completion.
+     */
+    public void invalidate() {
+        generation.advance();
+    }
+
+    private Payload load(long loadGeneration) {
+        List<TaskCategory> categories = taskCategoryRepository.findAll();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(categories);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize categories", e);
+        }
+        if (json.length < minCompressSize) {
+            return new Payload(loadGeneration, json, null, null);
+        }
+        return new Payload(loadGeneration, json, gzip(json), deflate(json));
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (OutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Immutable serialized category list in identity, gzip and deflate encodings.
+     * The compressed variants are null when the payload is below the compression
+     * threshold.
+     */
+    public static final class Payload {
+        private final long generation;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final byte[] deflate;
+
+        private Payload(long generation, byte[] json, byte[] gzip, byte[] deflate) {
+            this.generation = generation;
+            this.json = json;
+            this.gzip = gzip;
+            this.deflate = deflate;
+        }
+
+        /**
+         * Getter for the uncompressed JSON payload.
+         *
+         * @return The JSON bytes.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Getter for the gzip-encoded payload.
+         *
+         * @return The gzip bytes, or null if the payload was not compressed.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        /**
+         * Getter for the deflate-encoded payload.
+         *
+         * @return The deflate bytes, or null if the payload was not compressed.
+         */
+        public byte[] getDeflate() {
+            return deflate;
+        }
+    }
+}
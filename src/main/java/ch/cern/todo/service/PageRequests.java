@@ -0,0 +1,47 @@
+package ch.cern.todo.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Helpers for the paginated list queries. Client supplied sort orders are
+ * checked against a whitelist, so an entity can not be ordered by a column it
+ * does not expose (such as a password hash), and the identifier is appended as
+ * a tie-breaker so that consecutive pages never overlap or skip rows.
+ */
+final class PageRequests {
+
+    private PageRequests() {
+    }
+
+    /**
+     * Validates the sort order of a page request and makes it deterministic.
+     *
+     * @param pageable The requested page.
+     * @param sortable The properties clients may sort by.
+     * @param idName   The identifier property used as the final tie-breaker.
+     * @return The page request to run.
+     * @throws IllegalArgumentException If the sort order references a property
+     *                                  that is not sortable.
+     */
+    static Pageable sanitize(Pageable pageable, Set<String> sortable, String idName) {
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by '" + order.getProperty()
+                        + "'; sortable properties are " + sortable);
+            }
+        }
+        if (sort.getOrderFor(idName) == null) {
+            sort = sort.and(Sort.by(idName));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+}
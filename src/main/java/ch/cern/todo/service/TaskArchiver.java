@@ -0,0 +1,147 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.repository.ArchivedTaskRepository;
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import ch.cern.todo.search.TaskTextIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Moves old tasks out of the hot TASKS table into TASKS_ARCHIVE: tasks
+ * completed more than the retention period ago, and open tasks whose deadline
+ * passed more than the retention period ago (archived as EXPIRED). Tasks are
+ * moved in bounded batches, each in its own short transaction (a SELECT ...
+ * FOR UPDATE of the batch, one INSERT ... SELECT and one DELETE, both
+ * repeating the archiving condition), so that the archiver never holds locks
+ * on many rows or competes with the request traffic for long, and a task
+ * changed since it was selected is never archived.
+ *
+ * Nothing else depends on the archiver, so it is marked @Lazy(false): under
+ * the lazy profile its scheduled job must not depend on a request creating it.
+ */
+@Component
+@Lazy(false)
+public class TaskArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskSearchCoalescer searchCoalescer;
+    private final TaskTextIndex textIndex;
+    private final TaskSnapshot snapshot;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter archived;
+
+    /**
+     * Constructor for TaskArchiver.
+     * 
+     * @param taskRepository         The repository of hot tasks.
+     * @param archivedTaskRepository The repository of archived tasks.
+     * @param searchCoalescer        Shared search results to invalidate.
+     * @param textIndex              The trigram index archived tasks are
+     *                               removed from.
+     * @param snapshot               The in-memory task snapshot archived tasks
+     *                               are removed from.
+     * @param transactionManager     The transaction manager for the batches.
+     * @param enabled                Whether the scheduled run is enabled.
+     * @param retention              How long completed and expired tasks stay
+     *                               in the hot table.
+     * @param batchSize              The number of tasks moved per transaction.
+     * @param maxBatchesPerRun       The number of batches per scheduled run.
+     * @param meterRegistry          The registry for the archiving metrics.
+     */
+    public TaskArchiver(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+            TaskSearchCoalescer searchCoalescer, TaskTextIndex textIndex, TaskSnapshot snapshot,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.archive.enabled:true}") boolean enabled,
+            @Value("${todo.archive.retention:P30D}") Duration retention,
+            @Value("${todo.archive.batch-size:500}") int batchSize,
+            @Value("${todo.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.searchCoalescer = searchCoalescer;
+        this.textIndex = textIndex;
+        this.snapshot = snapshot;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archived = Counter.builder("todo.archive.tasks")
+                .description("Tasks moved to the archive").register(meterRegistry);
+    }
+
+    /**
+     * Scheduled archiving run.
+     */
+    @Scheduled(initialDelayString = "${todo.archive.initial-delay:PT5M}",
+            fixedDelayString = "${todo.archive.interval:PT1H}")
+    public void scheduledRun() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives all tasks that are due, in batches, up to the per-run limit.
+     * 
+     * @return The number of archived tasks.
+     */
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transaction.execute(status -> archiveBatch(cutoff));
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} tasks completed or due before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = taskRepository.findArchivableIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        searchCoalescer.invalidate();
+        int copied = archivedTaskRepository.copyFromTasks(ids, cutoff, LocalDateTime.now());
+        int deleted = taskRepository.deleteArchivable(ids, cutoff);
+        if (copied != deleted) {
+            // rolls the batch back; the tasks are selected again by the next run
+            throw new IllegalStateException("Archived " + copied + " tasks but deleted " + deleted);
+        }
+        textIndex.onTasksDeleted(ids);
+        snapshot.onTasksDeleted(ids);
+        archived.increment(deleted);
+        return deleted;
+    }
+}
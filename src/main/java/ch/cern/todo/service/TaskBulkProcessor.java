@@ -0,0 +1,381 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.dto.TaskBulkUpdateDTO;
+import ch.cern.todo.exception.ResourceNotFoundException;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.CommonQueryContract;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.SelectionQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Applies bulk updates (re-categorizations, overdue sweeps) to the hot tasks in
+ * parallel. The task ID range is split recursively on a ForkJoinPool down to
+ * chunks of chunk-size IDs. Each chunk selects the IDs of its matching tasks
+ * through its own StatelessSession (no persistence context, no dirty checking)
+ * and updates them in its own short transaction with one UPDATE ... WHERE id
+ * IN, which repeats the filter so that tasks changed in between are left
+ * alone; only the tasks actually updated are reported to the snapshot.
+ * A failed chunk does not roll back the chunks already committed; the
+ * operation can simply be repeated, as it is idempotent.
+ *
+ * Every worker holds a database connection while it processes a chunk, so the
+ * parallelism is capped by the size of the connection pool minus
+ * connection-headroom connections left to the other requests. The workers are
+ * shared by all bulk updates: concurrent updates queue their chunks on the
+ * same pool instead of each taking its own set of connections.
+ */
+@Component
+public class TaskBulkProcessor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskBulkProcessor.class);
+
+    private final SessionFactory sessionFactory;
+    private final TaskCategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TaskSearchCoalescer searchCoalescer;
+    private final TaskSnapshot snapshot;
+    private final TransactionTemplate transaction;
+    private final int parallelism;
+    private final int maxParallelism;
+    private final int chunkSize;
+    private final Counter updated;
+    private final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for TaskBulkProcessor.
+     *
+     * @param entityManagerFactory The factory the stateless sessions are opened
+     *                             from.
+     * @param categoryRepository   The repository used to validate the new
+     *                             category.
+     * @param userRepository       The repository used to validate the new user.
+     * @param searchCoalescer      Shared search results to invalidate.
+     * @param snapshot             The in-memory task snapshot to keep in sync.
+     * @param transactionManager   The transaction manager for the chunks.
+     * @param dataSource           The data source, whose pool size caps the
+     *                             parallelism.
+     * @param parallelism          The number of worker threads (0 for the
+     *                             number of processors).
+     * @param connectionHeadroom   The number of pooled connections left to the
+     *                             other requests.
+     * @param chunkSize            The span of task IDs per chunk.
+     * @param meterRegistry        The registry for the bulk update metrics.
+     */
+    public TaskBulkProcessor(EntityManagerFactory entityManagerFactory, TaskCategoryRepository categoryRepository,
+            UserRepository userRepository, TaskSearchCoalescer searchCoalescer, TaskSnapshot snapshot,
+            PlatformTransactionManager transactionManager, DataSource dataSource,
+            @Value("${todo.bulk.parallelism:0}") int parallelism,
+            @Value("${todo.bulk.connection-headroom:4}") int connectionHeadroom,
+            @Value("${todo.bulk.chunk-size:1000}") int chunkSize,
+            MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.searchCoalescer = searchCoalescer;
+        this.snapshot = snapshot;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxParallelism = dataSource instanceof HikariDataSource hikari
+                ? Math.max(1, hikari.getMaximumPoolSize() - connectionHeadroom) : Integer.MAX_VALUE;
+        this.parallelism = Math.min(maxParallelism,
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.updated = Counter.builder("todo.bulk.tasks")
+                .description("Tasks changed by bulk updates").register(meterRegistry);
+    }
+
+    /**
+     * Applies a bulk update with the configured parallelism.
+     *
+     * @param update The selection of tasks and their new category and/or user.
+     * @return The numbers of selected and updated tasks.
+     * @throws IllegalArgumentException  If no selection filter, or neither a new
+     *                                   category nor a new user is given.
+     * @throws ResourceNotFoundException If the new category or user does not
+     *                                   exist.
+     */
+    public Result update(TaskBulkUpdateDTO update) {
+        return update(update, parallelism);
+    }
+
+    /**
+     * Applies a bulk update with the given parallelism, capped by the size of
+     * the connection pool.
+     *
+     * @param update      The selection of tasks and their new category and/or
+     *                    user.
+     * @param parallelism The number of worker threads.
+     * @return The numbers of selected and updated tasks.
+     * @throws IllegalArgumentException  If no selection filter, or neither a new
+     *                                   category nor a new user is given.
+     * @throws ResourceNotFoundException If the new category or user does not
+     *                                   exist.
+     */
+    public Result update(TaskBulkUpdateDTO update, int parallelism) {
+        if (update.getCategoryId() == null && update.getUserId() == null && update.getOverdueBefore() == null) {
+            throw new IllegalArgumentException("A category, user or overdue selection must be provided");
+        }
+        if (update.getNewCategoryId() == null && update.getNewUserId() == null) {
+            throw new IllegalArgumentException("A new category or user must be provided");
+        }
+        if (update.getNewCategoryId() != null && !categoryRepository.existsById(update.getNewCategoryId())) {
+            throw new ResourceNotFoundException("Category not found with ID: " + update.getNewCategoryId());
+        }
+        if (update.getNewUserId() != null && !userRepository.existsById(update.getNewUserId())) {
+            throw new ResourceNotFoundException("User not found with ID: " + update.getNewUserId());
+        }
+        long start = System.nanoTime();
+        Object[] range;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            range = session.createSelectionQuery("select min(t.id), max(t.id) from Task t", Object[].class)
+                    .getSingleResult();
+        }
+        int threads = Math.max(1, Math.min(parallelism, maxParallelism));
+        Result result = new Result();
+        if (range[0] != null) {
+            result = pools.computeIfAbsent(threads, ForkJoinPool::new)
+                    .invoke(new Chunk(new Statements(update), (Long) range[0], (Long) range[1]));
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        updated.increment(result.updated);
+        logger.info("Bulk update changed {} of {} selected tasks in {} chunks ({} threads, {} ms)", result.updated,
+                result.selected, result.chunks, threads, result.elapsedMillis);
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(ForkJoinPool::shutdown);
+    }
+
+    /**
+     * Processes the tasks of one chunk of IDs.
+     */
+    private Result process(Statements statements, long from, long to) {
+        List<Long> ids;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            ids = statements.bind(session.createSelectionQuery(statements.select, Long.class))
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+        }
+        Result result = new Result();
+        result.chunks = 1;
+        result.selected = ids.size();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        result.updated = transaction.execute(status -> {
+            searchCoalescer.invalidate();
+            TaskBulkUpdateDTO update = statements.update;
+            TaskCategory category = update.getNewCategoryId() != null
+                    ? entityManager.getReference(TaskCategory.class, update.getNewCategoryId()) : null;
+            User user = update.getNewUserId() != null
+                    ? entityManager.getReference(User.class, update.getNewUserId()) : null;
+            MutationQuery query = statements.bind(
+                    entityManager.unwrap(Session.class).createMutationQuery(statements.mutation()));
+            if (category != null) {
+                query.setParameter("newCategory", category);
+            }
+            if (user != null) {
+                query.setParameter("newUser", user);
+            }
+            int changed = query.setParameter("ids", ids).executeUpdate();
+            if (changed > 0) {
+                // the update skips the tasks changed since the selection; only the
+                // tasks it did change are refreshed in the snapshot
+                SelectionQuery<Long> written = entityManager.unwrap(Session.class)
+                        .createSelectionQuery(statements.changed(), Long.class)
+                        .setParameter("ids", ids);
+                if (category != null) {
+                    written.setParameter("newCategory", category);
+                }
+                if (user != null) {
+                    written.setParameter("newUser", user);
+                }
+                snapshot.onTasksSaved(written.getResultList());
+            }
+            return changed;
+        });
+        return result;
+    }
+
+    /**
+     * Splits an ID range in halves until it fits a chunk.
+     */
+    private final class Chunk extends RecursiveTask<Result> {
+        private final Statements statements;
+        private final long from;
+        private final long to;
+
+        private Chunk(Statements statements, long from, long to) {
+            this.statements = statements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from < chunkSize) {
+                return process(statements, from, to);
+            }
+            long middle = (from + to) >>> 1;
+            Chunk lower = new Chunk(statements, from, middle);
+            lower.fork();
+            Result upper = new Chunk(statements, middle + 1, to).compute();
+            return lower.join().add(upper);
+        }
+    }
+
+    /**
+     * The HQL of one bulk update: the selection of a chunk and the update of the
+     * selected IDs, with the same filter.
+     */
+    private static final class Statements {
+        private final TaskBulkUpdateDTO update;
+        private final String select;
+        private final String where;
+
+        private Statements(TaskBulkUpdateDTO update) {
+            this.update = update;
+            StringBuilder where = new StringBuilder();
+            if (update.getCategoryId() != null) {
+                where.append(" and t.category.id = :categoryId");
+            }
+            if (update.getUserId() != null) {
+                where.append(" and t.user.id = :userId");
+            }
+            if (update.getOverdueBefore() != null) {
+                where.append(" and t.status = ch.cern.todo.model.TaskStatus.OPEN and t.deadline < :overdueBefore");
+            }
+            this.where = where.toString();
+            this.select = "select t.id from Task t where t.id between :from and :to" + this.where;
+        }
+
+        private String mutation() {
+            List<String> assignments = new ArrayList<>();
+            if (update.getNewCategoryId() != null) {
+                assignments.add("t.category = :newCategory");
+            }
+            if (update.getNewUserId() != null) {
+                assignments.add("t.user = :newUser");
+            }
+            return "update Task t set " + String.join(", ", assignments) + " where t.id in :ids" + where;
+        }
+
+        /**
+         * Selects the IDs among :ids that carry the new values after the update.
+         */
+        private String changed() {
+            StringBuilder changed = new StringBuilder("select t.id from Task t where t.id in :ids");
+            if (update.getNewCategoryId() != null) {
+                changed.append(" and t.category = :newCategory");
+            }
+            if (update.getNewUserId() != null) {
+                changed.append(" and t.user = :newUser");
+            }
+            return changed.toString();
+        }
+
+        private <Q extends CommonQueryContract> Q bind(Q query) {
+            if (update.getCategoryId() != null) {
+                query.setParameter("categoryId", update.getCategoryId());
+            }
+            if (update.getUserId() != null) {
+                query.setParameter("userId", update.getUserId());
+            }
+            if (update.getOverdueBefore() != null) {
+                query.setParameter("overdueBefore", update.getOverdueBefore());
+            }
+            return query;
+        }
+    }
+
+    /**
+     * The outcome of a bulk update.
+     */
+    public static final class Result {
+        private long selected;
+        private long updated;
+        private int chunks;
+        private long elapsedMillis;
+
+        private Result add(Result other) {
+            selected += other.selected;
+            updated += other.updated;
+            chunks += other.chunks;
+            return this;
+        }
+
+        /**
+         * Getter for the number of tasks matching the selection.
+         *
+         * @return The number of selected tasks.
+         */
+        public long getSelected() {
+            return selected;
+        }
+
+        /**
+         * Getter for the number of tasks changed; lower than the number of
+         * selected tasks if some were changed concurrently.
+         *
+         * @return The number of updated tasks.
+         */
+        public long getUpdated() {
+            return updated;
+        }
+
+        /**
+         * Getter for the number of chunks the ID range was split into.
+         *
+         * @return The number of chunks.
+         */
+        public int getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Getter for the duration of the bulk update.
+         *
+         * @return The elapsed time in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
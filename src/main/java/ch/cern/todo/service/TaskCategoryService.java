@@ -3,11 +3,14 @@ package ch.cern.todo.service;
 import ch.cern.todo.exception.ResourceNotFoundException;
 import ch.cern.todo.model.TaskCategory;
 import ch.cern.todo.repository.TaskCategoryRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Dimitrios Milios
@@ -23,16 +26,26 @@ import java.util.Optional;
 @Service
 @Transactional
 public class TaskCategoryService {
+    /**
+     * Properties the category list can be sorted by.
+     */
+    private static final Set<String> SORTABLE = Set.of("id", "name", "description");
+
     private final TaskCategoryRepository taskCategoryRepository;
+    private final CategoryPayloadCache categoryPayloadCache;
 
     /**
      * Constructor for TaskCategoryService. Injects the TaskCategoryRepository
      * dependency.
      * 
      * @param taskCategoryRepository The repository used for data access operations.
+     * @param categoryPayloadCache   The serialized category list cache, invalidated
+     *                               on every write.
      */
-    public TaskCategoryService(TaskCategoryRepository taskCategoryRepository) {
+    public TaskCategoryService(TaskCategoryRepository taskCategoryRepository,
+            CategoryPayloadCache categoryPayloadCache) {
         this.taskCategoryRepository = taskCategoryRepository;
+        this.categoryPayloadCache = categoryPayloadCache;
     }
 
     /**
@@ -44,6 +57,7 @@ public class TaskCategoryService {
      */
     public TaskCategory createCategory(TaskCategory category) {
         validateCategory(category);
+        categoryPayloadCache.invalidate();
         return taskCategoryRepository.save(category);
     }
 
@@ -67,6 +81,32 @@ public class TaskCategoryService {
         return taskCategoryRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of task categories. Unlike getAllCategoriesPayload, the
+     * page is read from the database.
+     * 
+     * @param pageable The requested page and sort order.
+     * @param count    Whether to count the total number of categories; when false
+     *                 a count-free Slice is returned instead of a Page.
+     * @return The requested page (or slice) of task categories.
+     * @throws IllegalArgumentException If the sort order is not supported.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskCategory> getCategories(Pageable pageable, boolean count) {
+        Pageable page = PageRequests.sanitize(pageable, SORTABLE, "id");
+        return count ? taskCategoryRepository.findAll(page) : taskCategoryRepository.findAllBy(page);
+    }
+
+    /**
+     * Retrieves all task categories as a cached, pre-serialized JSON payload.
+     * 
+     * @return The category list payload in all available encodings.
+     */
+    @Transactional(readOnly = true)
+    public CategoryPayloadCache.Payload getAllCategoriesPayload() {
+        return categoryPayloadCache.get();
+    }
+
     /**
      * Updates an existing task category.
      * 
@@ -79,6 +119,7 @@ public class TaskCategoryService {
      */
     public TaskCategory updateCategory(Long id, TaskCategory category) {
         validateCategory(category);
+        categoryPayloadCache.invalidate();
         return taskCategoryRepository.findById(id)
                 .map(existingCategory -> {
                     existingCategory.setName(category.getName());
@@ -99,6 +140,7 @@ public class TaskCategoryService {
         if (!taskCategoryRepository.existsById(id)) {
             throw new IllegalArgumentException("Category not found");
         }
+        categoryPayloadCache.invalidate();
         taskCategoryRepository.deleteById(id);
     }
 
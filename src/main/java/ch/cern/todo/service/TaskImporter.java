@@ -0,0 +1,525 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.TaskStatus;
+import ch.cern.todo.model.User;
+import ch.cern.todo.reminder.DeadlineReminderScheduler;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import ch.cern.todo.search.TaskTextIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.JDBCException;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Imports tasks from CSV or NDJSON files of any size (see TaskRecordReader for
+ * the formats). The file is streamed: records are validated with the rules of
+ * TaskService, their category and user names resolved through per-import LRU
+ * caches of the names found, and the valid tasks inserted in batches of
+ * batch-size rows, each batch with one batched JDBC INSERT in its own
+ * transaction of a Hibernate StatelessSession (no persistence context, no
+ * dirty checking). Only one batch, one record of at most max-record-length
+ * characters, the caches and the first max-errors row errors are held in
+ * memory.
+ *
+ * A batch that the database rejects (e.g. a duplicate task name) is retried
+ * row by row, so that only the offending rows are reported. The search
+ * indexes and the reminders are updated after each committed batch.
+ */
+@Component
+public class TaskImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImporter.class);
+
+    private static final String INSERT_TASK = "INSERT INTO TASKS (TASK_NAME, TASK_DESCRIPTION, NAME_NORMALIZED, "
+            + "DESCRIPTION_NORMALIZED, DEADLINE, CATEGORY_ID, USER_ID, STATUS, COMPLETED_AT) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The number of category and user names cached per import.
+     */
+    private static final int LOOKUP_CACHE_SIZE = 1000;
+
+    private final SessionFactory sessionFactory;
+    private final TaskService taskService;
+    private final TaskCategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TaskSearchCoalescer searchCoalescer;
+    private final DeadlineReminderScheduler reminderScheduler;
+    private final TaskTextIndex textIndex;
+    private final TaskSnapshot snapshot;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long progressInterval;
+    private final int maxErrors;
+    private final int maxRecordLength;
+    private final Counter imported;
+    private final Counter rejected;
+
+    /**
+     * Constructor for TaskImporter.
+     *
+     * @param entityManagerFactory The factory the stateless sessions are opened
+     *                             from.
+     * @param taskService          Provides the task validation rules.
+     * @param categoryRepository   Resolves the category names.
+     * @param userRepository       Resolves the usernames.
+     * @param searchCoalescer      Shared search results to invalidate.
+     * @param reminderScheduler    Schedules the reminders of imported tasks.
+     * @param textIndex            The trigram index imported tasks are added to.
+     * @param snapshot             The in-memory task snapshot imported tasks are
+     *                             added to.
+     * @param objectMapper         Parses the NDJSON lines.
+     * @param batchSize            The number of tasks inserted per transaction.
+     * @param progressInterval     The number of records between progress log
+     *                             lines.
+     * @param maxErrors            The number of row errors kept in the report.
+     * @param maxRecordLength      The number of characters above which a record
+     *                             is rejected.
+     * @param meterRegistry        The registry for the import metrics.
+     */
+    public TaskImporter(EntityManagerFactory entityManagerFactory, TaskService taskService,
+            TaskCategoryRepository categoryRepository, UserRepository userRepository,
+            TaskSearchCoalescer searchCoalescer, DeadlineReminderScheduler reminderScheduler,
+            TaskTextIndex textIndex, TaskSnapshot snapshot, ObjectMapper objectMapper,
+            @Value("${todo.import.batch-size:1000}") int batchSize,
+            @Value("${todo.import.progress-interval:100000}") long progressInterval,
+            @Value("${todo.import.max-errors:100}") int maxErrors,
+            @Value("${todo.import.max-record-length:65536}") int maxRecordLength,
+            MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.taskService = taskService;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.searchCoalescer = searchCoalescer;
+        this.reminderScheduler = reminderScheduler;
+        this.textIndex = textIndex;
+        this.snapshot = snapshot;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+        this.maxErrors = maxErrors;
+        this.maxRecordLength = maxRecordLength;
+        this.imported = Counter.builder("todo.import.rows").tag("result", "imported")
+                .description("Imported task records").register(meterRegistry);
+        this.rejected = Counter.builder("todo.import.rows").tag("result", "rejected")
+                .description("Rejected task records").register(meterRegistry);
+    }
+
+    /**
+     * Imports the tasks of a file. The stream is read to its end but not
+     * closed.
+     *
+     * @param in     The content of the file, UTF-8 encoded.
+     * @param format The format of the file.
+     * @return The numbers of read, imported and rejected records, with the
+     *         first row errors.
+     * @throws IllegalArgumentException If the CSV header is missing or has no
+     *                                  name column.
+     * @throws UncheckedIOException     If the file cannot be read.
+     */
+    public Report importTasks(InputStream in, Format format) {
+        long start = System.nanoTime();
+        Report report = new Report();
+        Map<String, TaskCategory> categories = lookupCache();
+        Map<String, User> users = lookupCache();
+        List<Row> batch = new ArrayList<>(batchSize);
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        try {
+            TaskRecordReader records = format == Format.CSV ? TaskRecordReader.csv(reader, maxRecordLength)
+                    : TaskRecordReader.ndjson(reader, objectMapper, maxRecordLength);
+            TaskRecordReader.Record record;
+            while ((record = records.next()) != null) {
+                report.records++;
+                try {
+                    batch.add(new Row(record.line, toTask(record, categories, users)));
+                } catch (IllegalArgumentException e) {
+                    reject(report, record.line, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    insert(batch, report);
+                }
+                if (report.records % progressInterval == 0) {
+                    logger.info("Import progress: {} records read, {} imported, {} rejected ({} records/s)",
+                            report.records, report.imported, report.rejected,
+                            report.records * 1_000_000_000 / Math.max(1, System.nanoTime() - start));
+                }
+            }
+            insert(batch, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import file", e);
+        } finally {
+            report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+        logger.info("Imported {} of {} task records ({} rejected) in {} ms", report.imported, report.records,
+                report.rejected, report.elapsedMillis);
+        return report;
+    }
+
+    /**
+     * Builds and validates the task of a record.
+     *
+     * @throws IllegalArgumentException If the record is invalid.
+     */
+    private Task toTask(TaskRecordReader.Record record, Map<String, TaskCategory> categories,
+            Map<String, User> users) {
+        if (record.error != null) {
+            throw new IllegalArgumentException(record.error);
+        }
+        if (record.deadline() == null) {
+            throw new IllegalArgumentException("Task deadline must be provided");
+        }
+        if (record.category() == null) {
+            throw new IllegalArgumentException("Task category must be provided");
+        }
+        if (record.user() == null) {
+            throw new IllegalArgumentException("Task user must be provided");
+        }
+        String description = record.description() != null ? record.description() : "";
+        if (description.length() > 255) {
+            throw new IllegalArgumentException("Task description cannot exceed 255 characters");
+        }
+        LocalDateTime deadline;
+        try {
+            deadline = LocalDateTime.parse(record.deadline());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid deadline '" + record.deadline()
+                    + "', expected e.g. 2030-01-01T09:00:00");
+        }
+        TaskCategory category = lookup(categories, record.category(), categoryRepository::findByName, "Category");
+        User user = lookup(users, record.user(), userRepository::findByUsername, "User");
+        Task task = new Task(record.name(), description, deadline, category, user);
+        if (record.status() != null) {
+            try {
+                task.setStatus(TaskStatus.valueOf(record.status().trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + record.status());
+            }
+        }
+        taskService.validate(task);
+        if (task.getStatus() == TaskStatus.COMPLETED) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
+        return task;
+    }
+
+    /**
+     * Creates a cache of the names found, dropping the least recently used one
+     * once full. Unknown names are not cached, so that a file full of distinct
+     * unknown names cannot fill the memory.
+     */
+    private static <T> Map<String, T> lookupCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > LOOKUP_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Resolves a name through a lookup cache.
+     *
+     * @throws IllegalArgumentException If nothing has the name.
+     */
+    private static <T> T lookup(Map<String, T> cache, String name, Function<String, Optional<T>> finder,
+            String kind) {
+        T found = cache.get(name);
+        if (found == null) {
+            found = finder.apply(name).orElseThrow(() -> new IllegalArgumentException(kind + " not found: " + name));
+            cache.put(name, found);
+        }
+        return found;
+    }
+
+    /**
+     * Inserts and clears a batch; if the database rejects it, retries its rows
+     * one by one.
+     */
+    private void insert(List<Row> batch, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Row> inserted = batch;
+        try {
+            insert(batch);
+        } catch (JDBCException e) {
+            inserted = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                try {
+                    insert(List.of(row));
+                    inserted.add(row);
+                } catch (JDBCException rowException) {
+                    reject(report, row.line, message(rowException));
+                }
+            }
+        }
+        report.imported += inserted.size();
+        imported.increment(inserted.size());
+        List<Long> ids = new ArrayList<>(inserted.size());
+        for (Row row : inserted) {
+            if (row.task.getId() != null) {
+                reminderScheduler.onTaskSaved(row.task);
+                ids.add(row.task.getId());
+            }
+        }
+        textIndex.onTasksSaved(ids);
+        snapshot.onTasksSaved(ids);
+        batch.clear();
+    }
+
+    /**
+     * Inserts rows with one batched statement in one transaction, and sets the
+     * generated IDs on their tasks.
+     *
+     * @throws JDBCException If the database rejects the rows; nothing is
+     *                       inserted then.
+     */
+    private void insert(List<Row> rows) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT_TASK,
+                            new String[] { "TASK_ID" })) {
+                        for (Row row : rows) {
+                            bind(statement, row.task);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                        try (ResultSet keys = statement.getGeneratedKeys()) {
+                            for (int i = 0; i < rows.size() && keys.next(); i++) {
+                                rows.get(i).task.setId(keys.getLong(1));
+                            }
+                        }
+                    }
+                });
+                transaction.commit();
+                // outside of a Spring transaction, so only invalidated once committed
+                searchCoalescer.invalidate();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                rows.forEach(row -> row.task.setId(null));
+                throw e;
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Task task) throws SQLException {
+        statement.setString(1, task.getName());
+        statement.setString(2, task.getDescription());
+        statement.setString(3, task.getNameNormalized());
+        statement.setString(4, task.getDescriptionNormalized());
+        statement.setTimestamp(5, Timestamp.valueOf(task.getDeadline()));
+        statement.setLong(6, task.getCategory().getId());
+        statement.setLong(7, task.getUser().getId());
+        statement.setString(8, task.getStatus().name());
+        if (task.getCompletedAt() != null) {
+            statement.setTimestamp(9, Timestamp.valueOf(task.getCompletedAt()));
+        } else {
+            statement.setNull(9, Types.TIMESTAMP);
+        }
+    }
+
+    /**
+     * The first line of the database error, without the statement H2 appends.
+     */
+    private static String message(JDBCException e) {
+        String message = e.getSQLException().getMessage();
+        int end = message.indexOf('\n');
+        message = end >= 0 ? message.substring(0, end) : message;
+        return message.endsWith("; SQL statement:") ? message.substring(0, message.length() - 16) : message;
+    }
+
+    private void reject(Report report, long line, String message) {
+        report.rejected++;
+        rejected.increment();
+        if (report.errors.size() < maxErrors) {
+            report.errors.add(new RowError(line, message));
+        }
+    }
+
+    /**
+     * The formats of import files.
+     */
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Picks the format of a file from its name.
+         *
+         * @param fileName The file name, e.g. tasks.csv or tasks.ndjson.
+         * @return The format of the file.
+         * @throws IllegalArgumentException If the extension is not .csv,
+         *                                  .ndjson or .jsonl.
+         */
+        public static Format forFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import file (expected .csv, .ndjson or .jsonl): "
+                    + fileName);
+        }
+
+        /**
+         * Picks the format of an upload from its content type.
+         *
+         * @param contentType The content type, text/csv or application/x-ndjson.
+         * @return The format of the upload.
+         * @throws IllegalArgumentException If the content type is neither.
+         */
+        public static Format forContentType(String contentType) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported content type (expected text/csv or "
+                    + "application/x-ndjson): " + contentType);
+        }
+    }
+
+    /**
+     * A task to insert and the line of its record.
+     */
+    private static final class Row {
+        private final long line;
+        private final Task task;
+
+        private Row(long line, Task task) {
+            this.line = line;
+            this.task = task;
+        }
+    }
+
+    /**
+     * A rejected record.
+     */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        private RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Getter for the line the record starts on.
+         *
+         * @return The 1-based line number.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Getter for the reason the record was rejected.
+         *
+         * @return The error message.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * The outcome of an import.
+     */
+    public static final class Report {
+        private long records;
+        private long imported;
+        private long rejected;
+        private final List<RowError> errors = new ArrayList<>();
+        private long elapsedMillis;
+
+        /**
+         * Getter for the number of records read.
+         *
+         * @return The number of records.
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * Getter for the number of imported tasks.
+         *
+         * @return The number of imported tasks.
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * Getter for the number of rejected records.
+         *
+         * @return The number of rejected records.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Getter for the first row errors (up to todo.import.max-errors).
+         *
+         * @return The errors in the order of the file.
+         */
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Getter for the duration of the import.
+         *
+         * @return The elapsed time in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
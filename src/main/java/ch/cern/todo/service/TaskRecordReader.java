@@ -0,0 +1,325 @@
+package ch.cern.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Streaming reader of the task records of an import file, one record at a
+ * time, so that the memory used does not depend on the file size. Two formats
+ * are read:
+ * - CSV (RFC 4180): a header line naming the columns, then one record per
+ * line; fields may be quoted, and quoted fields may contain commas, doubled
+ * quotes and line breaks.
+ * - NDJSON: one JSON object per line; blank lines are skipped.
+ * The known columns/properties are name, description, deadline, category, user
+ * and status; others are ignored. A record longer than the maximum record
+ * length (e.g. after an unterminated quote) is reported as invalid and skipped
+ * up to the next line break, so that it is never buffered whole.
+ */
+abstract class TaskRecordReader implements Closeable {
+
+    /**
+     * The known columns, in the order of the fields of a Record.
+     */
+    private static final List<String> COLUMNS = List.of("name", "description", "deadline", "category", "user",
+            "status");
+
+    protected final BufferedReader in;
+    protected final int maxRecordLength;
+    protected long line;
+    // whether the last record read was longer than maxRecordLength
+    protected boolean truncated;
+
+    private TaskRecordReader(Reader in, int maxRecordLength) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Opens a CSV reader and reads its header line.
+     *
+     * @param in              The CSV text.
+     * @param maxRecordLength The maximum number of characters of a record.
+     * @return The reader positioned on the first record.
+     * @throws IOException              If the header cannot be read.
+     * @throws IllegalArgumentException If the header has no name column or is
+     *                                  too long.
+     */
+    static TaskRecordReader csv(Reader in, int maxRecordLength) throws IOException {
+        return new Csv(in, maxRecordLength);
+    }
+
+    /**
+     * Opens an NDJSON reader.
+     *
+     * @param in              The NDJSON text.
+     * @param mapper          The mapper parsing the lines.
+     * @param maxRecordLength The maximum number of characters of a line.
+     * @return The reader positioned on the first record.
+     */
+    static TaskRecordReader ndjson(Reader in, ObjectMapper mapper, int maxRecordLength) {
+        return new Ndjson(in, mapper, maxRecordLength);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or null at the end of the input.
+     * @throws IOException If the input cannot be read.
+     */
+    abstract Record next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Skips the rest of the current line, including its line break.
+     */
+    protected void skipLine() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c >= 0 && c != '\n');
+    }
+
+    /**
+     * The error of a record longer than the maximum record length.
+     */
+    protected String tooLong() {
+        return "Record exceeds " + maxRecordLength + " characters";
+    }
+
+    /**
+     * One record of the input: the raw field values (null when absent) and the
+     * line it starts on, or the reason it could not be parsed.
+     */
+    static final class Record {
+        final long line;
+        final String[] values = new String[COLUMNS.size()];
+        String error;
+
+        private Record(long line) {
+            this.line = line;
+        }
+
+        String name() {
+            return values[0];
+        }
+
+        String description() {
+            return values[1];
+        }
+
+        String deadline() {
+            return values[2];
+        }
+
+        String category() {
+            return values[3];
+        }
+
+        String user() {
+            return values[4];
+        }
+
+        String status() {
+            return values[5];
+        }
+    }
+
+    private static final class Csv extends TaskRecordReader {
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> fields = new ArrayList<>();
+        // column index of each known column, -1 if absent
+        private final int[] positions = new int[COLUMNS.size()];
+
+        private Csv(Reader in, int maxRecordLength) throws IOException {
+            super(in, maxRecordLength);
+            if (!readFields()) {
+                throw new IllegalArgumentException("The CSV file has no header line");
+            }
+            if (truncated) {
+                throw new IllegalArgumentException("The CSV header exceeds " + maxRecordLength + " characters");
+            }
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = -1;
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                int column = COLUMNS.indexOf(fields.get(i).trim().toLowerCase(Locale.ROOT));
+                if (column >= 0) {
+                    positions[column] = i;
+                }
+            }
+            if (positions[0] < 0) {
+                throw new IllegalArgumentException("The CSV header has no name column");
+            }
+        }
+
+        @Override
+        Record next() throws IOException {
+            long start;
+            do {
+                start = line + 1;
+                if (!readFields()) {
+                    return null;
+                }
+            } while (!truncated && fields.size() == 1 && fields.get(0).isEmpty()); // blank line
+            Record record = new Record(start);
+            if (truncated) {
+                record.error = tooLong();
+                return record;
+            }
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] >= 0 && positions[i] < fields.size() && !fields.get(positions[i]).isEmpty()) {
+                    record.values[i] = fields.get(positions[i]);
+                }
+            }
+            return record;
+        }
+
+        /**
+         * Reads the fields of one record, which spans several lines when a quoted
+         * field contains line breaks. A record longer than the maximum record
+         * length is dropped up to the next line break, and flagged as truncated.
+         *
+         * @return False at the end of the input.
+         */
+        private boolean readFields() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            truncated = false;
+            int c = in.read();
+            if (c < 0) {
+                return false;
+            }
+            line++;
+            boolean quoted = false;
+            for (int length = 1; c >= 0; c = in.read(), length++) {
+                if (length > maxRecordLength) {
+                    fields.clear();
+                    field.setLength(0);
+                    truncated = true;
+                    if (c != '\n') {
+                        skipLine();
+                    }
+                    break;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            fields.add(field.toString());
+            return true;
+        }
+    }
+
+    private static final class Ndjson extends TaskRecordReader {
+        private final ObjectMapper mapper;
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        private Ndjson(Reader in, ObjectMapper mapper, int maxRecordLength) {
+            super(in, maxRecordLength);
+            this.mapper = mapper;
+        }
+
+        @Override
+        Record next() throws IOException {
+            String text;
+            do {
+                text = readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (!truncated && text.isBlank());
+            Record record = new Record(line);
+            if (truncated) {
+                record.error = tooLong();
+                return record;
+            }
+            try {
+                JsonNode node = mapper.readTree(text);
+                if (!node.isObject()) {
+                    record.error = "Expected a JSON object";
+                    return record;
+                }
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    JsonNode value = node.get(COLUMNS.get(i));
+                    if (value != null && !value.isNull()) {
+                        record.values[i] = value.asText();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                record.error = "Invalid JSON: " + e.getOriginalMessage();
+            }
+            return record;
+        }
+
+        /**
+         * Reads one line without its line break. A line longer than the maximum
+         * record length is skipped and flagged as truncated.
+         *
+         * @return The line, or null at the end of the input.
+         */
+        private String readLine() throws IOException {
+            buffer.setLength(0);
+            truncated = false;
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            for (; c >= 0 && c != '\n'; c = in.read()) {
+                if (buffer.length() == maxRecordLength) {
+                    buffer.setLength(0);
+                    truncated = true;
+                    skipLine();
+                    break;
+                }
+                buffer.append((char) c);
+            }
+            int end = buffer.length();
+            if (end > 0 && buffer.charAt(end - 1) == '\r') {
+                buffer.setLength(end - 1);
+            }
+            return buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.dto.TaskDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Single-flight coalescing of identical task searches. The first caller for a
+ * given {@link TaskSearchCriteria} runs the search; callers arriving while it
+ * is running, or within a short TTL after it completed, share its result.
+ * Failed searches are not kept. The results are invalidated on every task
+ * write, both immediately and again once the writing transaction completes
+ * (see WriteGeneration), so a search can never share a result loaded before a
+ * committed write. Searches with a deadline carry their
+ * timeout in the criteria and therefore only share executions with searches
+ * of the same timeout.
+ */
+@Component
+public class TaskSearchCoalescer {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final WriteGeneration generation = new WriteGeneration();
+    private final ConcurrentMap<TaskSearchCriteria, Flight> flights = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter coalesced;
+
+    /**
+     * Constructor for TaskSearchCoalescer.
+     * 
+     * @param ttlMillis     How long a completed result is shared.
+     * @param maxEntries    The number of kept results above which expired ones
+     *                      are purged.
+     * @param meterRegistry The registry for the coalescing metrics.
+     */
+    public TaskSearchCoalescer(@Value("${todo.search.coalesce.ttl-ms:250}") long ttlMillis,
+            @Value("${todo.search.coalesce.max-entries:1000}") int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.executed = Counter.builder("todo.search.coalesce").tag("result", "executed")
+                .description("Task searches that ran a query").register(meterRegistry);
+        this.coalesced = Counter.builder("todo.search.coalesce").tag("result", "coalesced")
+                .description("Task searches served from a concurrent or recent identical search")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the result of the search, running it only if no identical search
+     * is in flight or was completed within the TTL.
+     * 
+     * @param criteria The normalized search criteria.
+     * @param search   Runs the search on the calling thread.
+     * @return The (shared, unmodifiable) search result.
+     */
+    public List<TaskDTO> search(TaskSearchCriteria criteria, Supplier<List<TaskDTO>> search) {
+        long currentGeneration = generation.get();
+        Flight flight = flights.get(criteria);
+        if (flight != null && flight.isUsable(currentGeneration, System.nanoTime())) {
+            coalesced.increment();
+            return flight.await();
+        }
+        if (flights.size() >= maxEntries) {
+            long now = System.nanoTime();
+            flights.values().removeIf(f -> !f.isUsable(generation.get(), now) && f.result.isDone());
+        }
+        Flight own = new Flight(currentGeneration);
+        Flight winner = flights.compute(criteria,
+                (key, existing) -> existing != null && existing.isUsable(currentGeneration, System.nanoTime())
+                        ? existing
+                        : own);
+        if (winner != own) {
+            coalesced.increment();
+            return winner.await();
+        }
+        executed.increment();
+        try {
+            List<TaskDTO> result = List.copyOf(search.get());
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flights.remove(criteria, own);
+            own.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Invalidates all shared results. When called inside a transaction the
+     * results are invalidated once more after completion.
+     */
+    public void invalidate() {
+        generation.advance();
+    }
+
+    /**
+     * One search execution and the callers sharing it.
+     */
+    private final class Flight {
+        private final long startGeneration;
+        private final CompletableFuture<List<TaskDTO>> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Flight(long startGeneration) {
+            this.startGeneration = startGeneration;
+        }
+
+        private boolean isUsable(long currentGeneration, long now) {
+            if (startGeneration != currentGeneration || result.isCompletedExceptionally()) {
+                return false;
+            }
+            return !result.isDone() || now - completedAt <= ttlNanos;
+        }
+
+        private void complete(List<TaskDTO> value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        private List<TaskDTO> await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.dto.TaskField;
+import ch.cern.todo.model.SearchText;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Normalized task search parameters. Text filters are trimmed, lower-cased and
+ * accent-folded like the normalized task columns (see SearchText), and blank
+ * filters are dropped, so that searches which return the same result are
+ * equal and share a coalescing key.
+ * The selected fields are part of the key, as they change the result, and so
+ * is the timeout of a search with a deadline (see AsyncTaskSearchService): a
+ * search only shares its execution with searches under the same deadline
+ * semantics, so that a search without a deadline never fails with the query
+ * timeout of another one, and a search with one never waits for a search that
+ * has none.
+ */
+public final class TaskSearchCriteria {
+
+    private final String name;
+    private final String description;
+    private final LocalDate deadline;
+    private final Long categoryId;
+    private final Long userId;
+    private final boolean includeArchived;
+    private final Set<TaskField> fields;
+    private final Long timeoutMillis;
+
+    private TaskSearchCriteria(String name, String description, LocalDate deadline, Long categoryId,
+            Long userId, boolean includeArchived, Set<TaskField> fields, Long timeoutMillis) {
+        this.name = name;
+        this.description = description;
+        this.deadline = deadline;
+        this.categoryId = categoryId;
+        this.userId = userId;
+        this.includeArchived = includeArchived;
+        this.fields = fields;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Creates normalized criteria from the raw request parameters.
+     * 
+     * @param name        The task name (optional).
+     * @param description The task description (optional).
+     * @param deadlineStr The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId  The ID of the task category (optional).
+     * @param userId      The ID of the task's assigned user (optional).
+     * @return The normalized criteria.
+     * @throws IllegalArgumentException If the deadline is not a valid date.
+     */
+    public static TaskSearchCriteria of(String name, String description, String deadlineStr, Long categoryId,
+            Long userId) {
+        return of(name, description, deadlineStr, categoryId, userId, false);
+    }
+
+    /**
+     * Creates normalized criteria from the raw request parameters.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are searched as well.
+     * @return The normalized criteria.
+     * @throws IllegalArgumentException If the deadline is not a valid date.
+     */
+    public static TaskSearchCriteria of(String name, String description, String deadlineStr, Long categoryId,
+            Long userId, boolean includeArchived) {
+        LocalDate deadline = null;
+        if (StringUtils.hasText(deadlineStr)) {
+            try {
+                deadline = LocalDate.parse(deadlineStr.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid deadline format (expected yyyy-MM-dd): " + deadlineStr);
+            }
+        }
+        return new TaskSearchCriteria(normalize(name), normalize(description), deadline, categoryId, userId,
+                includeArchived, Collections.emptySet(), null);
+    }
+
+    /**
+     * Returns a copy of these criteria that selects only the given fields.
+     * 
+     * @param fields The fields to select; empty selects full TaskDTOs.
+     * @return The criteria with the field selection.
+     */
+    public TaskSearchCriteria withFields(Set<TaskField> fields) {
+        Set<TaskField> copy = fields.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(fields));
+        return new TaskSearchCriteria(name, description, deadline, categoryId, userId, includeArchived, copy,
+                timeoutMillis);
+    }
+
+    /**
+     * Returns a copy of these criteria for a search with the given timeout.
+     * 
+     * @param timeoutMillis The timeout of the search in milliseconds, or null
+     *                      for a search without a deadline.
+     * @return The criteria with the timeout.
+     */
+    public TaskSearchCriteria withTimeout(Long timeoutMillis) {
+        return new TaskSearchCriteria(name, description, deadline, categoryId, userId, includeArchived, fields,
+                timeoutMillis);
+    }
+
+    private static String normalize(String text) {
+        return StringUtils.hasText(text) ? SearchText.normalize(text.trim()) : null;
+    }
+
+    /**
+     * Getter for the normalized name filter.
+     * 
+     * @return The name filter, or null.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the normalized description filter.
+     * 
+     * @return The description filter, or null.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Getter for the deadline filter (the whole day matches).
+     * 
+     * @return The deadline date, or null.
+     */
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Getter for the category filter.
+     * 
+     * @return The category ID, or null.
+     */
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Getter for the user filter.
+     * 
+     * @return The user ID, or null.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Whether archived tasks are searched as well.
+     * 
+     * @return True if the archive is included.
+     */
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    /**
+     * Getter for the selected fields.
+     * 
+     * @return The fields to select, or an empty set for full TaskDTOs.
+     */
+    public Set<TaskField> getFields() {
+        return fields;
+    }
+
+    /**
+     * Getter for the timeout of the search.
+     * 
+     * @return The timeout in milliseconds, or null for a search without a
+     *         deadline.
+     */
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskSearchCriteria other)) {
+            return false;
+        }
+        return Objects.equals(name, other.name) && Objects.equals(description, other.description)
+                && Objects.equals(deadline, other.deadline) && Objects.equals(categoryId, other.categoryId)
+                && Objects.equals(userId, other.userId) && includeArchived == other.includeArchived
+                && fields.equals(other.fields) && Objects.equals(timeoutMillis, other.timeoutMillis);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, description, deadline, categoryId, userId, includeArchived, fields,
+                timeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskSearchCriteria[name=" + name + ", description=" + description + ", deadline=" + deadline
+                + ", categoryId=" + categoryId + ", userId=" + userId + ", includeArchived=" + includeArchived
+                + ", fields=" + fields + ", timeoutMillis=" + timeoutMillis + "]";
+    }
+}
@@ -0,0 +1,285 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.model.ArchivedTask;
+import ch.cern.todo.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Precompiled task search statements, one per filter shape. The five search
+ * filters are optional, so there are 2^5 shapes; for each shape the
+ * parameterized HQL of the search, count and existence queries is built once
+ * at startup for both the hot and the archive table. A search then only picks
+ * the statement for its shape and binds the parameters. As the HQL text of a
+ * shape never changes, Hibernate serves its translation from the query plan
+ * cache, whereas a criteria query (Specification) is translated again on every
+ * execution.
+ *
+ * Hot task searches narrowed by the trigram index (TaskTextIndex) have a
+ * sixth filter, the candidate IDs, which lets the database fetch the rows by
+ * primary key; the name and description conditions are kept, so the result is
+ * exact even if the index lags behind a write.
+ */
+@Component
+public class TaskSearchPlans {
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 1 << 1;
+    private static final int DEADLINE = 1 << 2;
+    private static final int CATEGORY = 1 << 3;
+    private static final int USER = 1 << 4;
+    private static final int IDS = 1 << 5;
+    private static final int SHAPES = 1 << 6;
+    private static final String PRIME_TERM = "~prime~";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Plan[] taskPlans = new Plan[SHAPES];
+    private final Plan[] archivedTaskPlans = new Plan[SHAPES];
+
+    /**
+     * Constructor for TaskSearchPlans. Builds the statements of every shape.
+     */
+    public TaskSearchPlans() {
+        for (int shape = 0; shape < SHAPES; shape++) {
+            taskPlans[shape] = new Plan("Task", where(shape, "t.category.id", "t.user.id"));
+            archivedTaskPlans[shape] = new Plan("ArchivedTask", where(shape, "t.categoryId", "t.userId"));
+        }
+    }
+
+    /**
+     * Finds the hot tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The matching tasks.
+     */
+    public List<Task> findTasks(TaskSearchCriteria criteria) {
+        return findTasks(criteria, null);
+    }
+
+    /**
+     * Finds the hot tasks matching the criteria among candidate IDs.
+     *
+     * @param criteria The normalized search criteria.
+     * @param ids      The candidate IDs (can be null for all tasks; not
+     *                 empty).
+     * @return The matching tasks.
+     */
+    public List<Task> findTasks(TaskSearchCriteria criteria, List<Long> ids) {
+        return bind(entityManager.createQuery(plan(taskPlans, criteria, ids).select, Task.class), criteria, ids)
+                .getResultList();
+    }
+
+    /**
+     * Finds the archived tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The matching archived tasks.
+     */
+    public List<ArchivedTask> findArchivedTasks(TaskSearchCriteria criteria) {
+        return bind(entityManager.createQuery(plan(archivedTaskPlans, criteria, null).select, ArchivedTask.class),
+                criteria, null).getResultList();
+    }
+
+    /**
+     * Counts the hot tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The number of matching tasks.
+     */
+    public long countTasks(TaskSearchCriteria criteria) {
+        return countTasks(criteria, null);
+    }
+
+    /**
+     * Counts the hot tasks matching the criteria among candidate IDs.
+     *
+     * @param criteria The normalized search criteria.
+     * @param ids      The candidate IDs (can be null for all tasks; not
+     *                 empty).
+     * @return The number of matching tasks.
+     */
+    public long countTasks(TaskSearchCriteria criteria, List<Long> ids) {
+        return count(taskPlans, criteria, ids);
+    }
+
+    /**
+     * Counts the archived tasks matching the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return The number of matching archived tasks.
+     */
+    public long countArchivedTasks(TaskSearchCriteria criteria) {
+        return count(archivedTaskPlans, criteria, null);
+    }
+
+    /**
+     * Checks whether any hot task matches the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return True if a task matches.
+     */
+    public boolean existsTasks(TaskSearchCriteria criteria) {
+        return existsTasks(criteria, null);
+    }
+
+    /**
+     * Checks whether any hot task among candidate IDs matches the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @param ids      The candidate IDs (can be null for all tasks; not
+     *                 empty).
+     * @return True if a task matches.
+     */
+    public boolean existsTasks(TaskSearchCriteria criteria, List<Long> ids) {
+        return exists(taskPlans, criteria, ids);
+    }
+
+    /**
+     * Checks whether any archived task matches the criteria.
+     *
+     * @param criteria The normalized search criteria.
+     * @return True if an archived task matches.
+     */
+    public boolean existsArchivedTasks(TaskSearchCriteria criteria) {
+        return exists(archivedTaskPlans, criteria, null);
+    }
+
+    /**
+     * Runs every statement once with values that match no task, so that
+     * Hibernate translates them and the database prepares them (and reads the
+     * pages of the indexes and tables they use) before the first search. Must be
+     * called inside a transaction.
+     *
+     * @return The number of statements run.
+     */
+    public int prime() {
+        int statements = 0;
+        for (int shape = 0; shape < SHAPES; shape++) {
+            TaskSearchCriteria criteria = TaskSearchCriteria.of((shape & NAME) != 0 ? PRIME_TERM : null,
+                    (shape & DESCRIPTION) != 0 ? PRIME_TERM : null, (shape & DEADLINE) != 0 ? "1970-01-01" : null,
+                    (shape & CATEGORY) != 0 ? -1L : null, (shape & USER) != 0 ? -1L : null);
+            List<Long> ids = (shape & IDS) != 0 ? List.of(-1L) : null;
+            findTasks(criteria, ids);
+            countTasks(criteria, ids);
+            existsTasks(criteria, ids);
+            statements += 3;
+            if (ids == null) {
+                findArchivedTasks(criteria);
+                countArchivedTasks(criteria);
+                existsArchivedTasks(criteria);
+                statements += 3;
+            }
+        }
+        return statements;
+    }
+
+    private long count(Plan[] plans, TaskSearchCriteria criteria, List<Long> ids) {
+        return bind(entityManager.createQuery(plan(plans, criteria, ids).count, Long.class), criteria, ids)
+                .getSingleResult();
+    }
+
+    private boolean exists(Plan[] plans, TaskSearchCriteria criteria, List<Long> ids) {
+        return !bind(entityManager.createQuery(plan(plans, criteria, ids).exists, Integer.class), criteria, ids)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    private static Plan plan(Plan[] plans, TaskSearchCriteria criteria, List<Long> ids) {
+        return plans[shape(criteria, ids)];
+    }
+
+    private static int shape(TaskSearchCriteria criteria, List<Long> ids) {
+        int shape = ids != null ? IDS : 0;
+        if (criteria.getName() != null) {
+            shape |= NAME;
+        }
+        if (criteria.getDescription() != null) {
+            shape |= DESCRIPTION;
+        }
+        if (criteria.getDeadline() != null) {
+            shape |= DEADLINE;
+        }
+        if (criteria.getCategoryId() != null) {
+            shape |= CATEGORY;
+        }
+        if (criteria.getUserId() != null) {
+            shape |= USER;
+        }
+        return shape;
+    }
+
+    private static String where(int shape, String categoryId, String userId) {
+        List<String> conditions = new ArrayList<>();
+        if ((shape & NAME) != 0) {
+            conditions.add("t.nameNormalized like :name");
+        }
+        if ((shape & DESCRIPTION) != 0) {
+            conditions.add("t.descriptionNormalized like :description");
+        }
+        if ((shape & DEADLINE) != 0) {
+            conditions.add("t.deadline >= :dayStart and t.deadline < :dayEnd");
+        }
+        if ((shape & CATEGORY) != 0) {
+            conditions.add(categoryId + " = :categoryId");
+        }
+        if ((shape & USER) != 0) {
+            conditions.add(userId + " = :userId");
+        }
+        if ((shape & IDS) != 0) {
+            conditions.add("t.id in :ids");
+        }
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    private static <R> TypedQuery<R> bind(TypedQuery<R> query, TaskSearchCriteria criteria, List<Long> ids) {
+        if (criteria.getName() != null) {
+            query.setParameter("name", "%" + criteria.getName() + "%");
+        }
+        if (criteria.getDescription() != null) {
+            query.setParameter("description", "%" + criteria.getDescription() + "%");
+        }
+        if (criteria.getDeadline() != null) {
+            LocalDateTime dayStart = criteria.getDeadline().atStartOfDay();
+            query.setParameter("dayStart", dayStart);
+            query.setParameter("dayEnd", dayStart.plusDays(1));
+        }
+        if (criteria.getCategoryId() != null) {
+            query.setParameter("categoryId", criteria.getCategoryId());
+        }
+        if (criteria.getUserId() != null) {
+            query.setParameter("userId", criteria.getUserId());
+        }
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        return query;
+    }
+
+    /**
+     * The statements of one filter shape.
+     */
+    private static final class Plan {
+        private final String select;
+        private final String count;
+        private final String exists;
+
+        private Plan(String entity, String where) {
+            this.select = "select t from " + entity + " t" + where;
+            this.count = "select count(t) from " + entity + " t" + where;
+            this.exists = "select 1 from " + entity + " t" + where;
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package ch.cern.todo.service;
 
+import ch.cern.todo.model.ArchivedTask;
 import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskStatus;
 import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.dto.TaskField;
+import ch.cern.todo.reminder.DeadlineReminderScheduler;
+import ch.cern.todo.repository.TaskProjectionRepository;
 import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import ch.cern.todo.search.TaskTextIndex;
 
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import ch.cern.todo.exception.ResourceNotFoundException;
 import ch.cern.todo.exception.TodoNotFoundException;
 import org.slf4j.Logger;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -36,14 +51,50 @@ public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
     private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskProjectionRepository taskProjectionRepository;
+    private final TaskSearchPlans searchPlans;
+    private final TaskSearchCoalescer searchCoalescer;
+    private final DeadlineReminderScheduler reminderScheduler;
+    private final TaskTextIndex textIndex;
+    private final TaskSnapshot snapshot;
+    private final TransactionTemplate readOnlyTransaction;
 
     /**
-     * Constructor for TaskService. Injects the TaskRepository dependency.
+     * Constructor for TaskService. Injects the TaskRepository and UserRepository
+     * dependencies.
      * 
-     * @param taskRepository The repository used for data access operations.
+     * @param taskRepository           The repository used for data access
+     *                                 operations.
+     * @param userRepository           The repository used to validate user
+     *                                 filters.
+     * @param taskProjectionRepository Runs the sparse fieldset queries.
+     * @param searchPlans              The precompiled search statements.
+     * @param searchCoalescer          Coalesces identical concurrent searches.
+     * @param reminderScheduler        Keeps the deadline reminders in sync with
+     *                                 task writes.
+     * @param textIndex                The trigram index narrowing substring
+     *                                 searches; kept in sync with task writes.
+     * @param snapshot                 The optional in-memory task snapshot
+     *                                 evaluating search filters; kept in sync
+     *                                 with task writes.
+     * @param transactionManager       The transaction manager for coalesced
+     *                                 searches.
      */
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository,
+            TaskProjectionRepository taskProjectionRepository, TaskSearchPlans searchPlans,
+            TaskSearchCoalescer searchCoalescer, DeadlineReminderScheduler reminderScheduler,
+            TaskTextIndex textIndex, TaskSnapshot snapshot, PlatformTransactionManager transactionManager) {
         this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskProjectionRepository = taskProjectionRepository;
+        this.searchPlans = searchPlans;
+        this.searchCoalescer = searchCoalescer;
+        this.reminderScheduler = reminderScheduler;
+        this.textIndex = textIndex;
+        this.snapshot = snapshot;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -55,7 +106,14 @@ public class TaskService {
      */
     public Task createTask(Task task) {
         validate(task);
-        return taskRepository.save(task);
+        searchCoalescer.invalidate();
+        task.setCompletedAt(null); // only applyStatus records completion times
+        applyStatus(task, task.getStatus() != null ? task.getStatus() : TaskStatus.OPEN);
+        Task saved = taskRepository.save(task);
+        reminderScheduler.onTaskSaved(saved);
+        textIndex.onTaskSaved(saved.getId());
+        snapshot.onTaskSaved(saved.getId());
+        return saved;
     }
 
     /**
@@ -69,6 +127,7 @@ public class TaskService {
      */
     public Task updateTask(Long id, Task task) {
         validate(task);
+        searchCoalescer.invalidate();
         return taskRepository.findById(id)
                 .map(existingTask -> {
                     existingTask.setName(task.getName());
@@ -76,7 +135,14 @@ public class TaskService {
                     existingTask.setDeadline(task.getDeadline());
                     existingTask.setCategory(task.getCategory());
                     existingTask.setUser(task.getUser());
-                    return taskRepository.save(existingTask);
+                    if (task.getStatus() != null) {
+                        applyStatus(existingTask, task.getStatus());
+                    }
+                    Task saved = taskRepository.save(existingTask);
+                    reminderScheduler.onTaskSaved(saved);
+                    textIndex.onTaskSaved(saved.getId());
+                    snapshot.onTaskSaved(saved.getId());
+                    return saved;
                 })
                 .orElseThrow(() -> new TodoNotFoundException("Task not found with ID: " + id));
     }
@@ -91,21 +157,46 @@ public class TaskService {
         if (!taskRepository.existsById(id)) {
             throw new TodoNotFoundException("Task not found with ID: " + id);
         }
+        searchCoalescer.invalidate();
         taskRepository.deleteById(id);
+        reminderScheduler.onTaskDeleted(id);
+        textIndex.onTaskDeleted(id);
+        snapshot.onTaskDeleted(id);
     }
 
     /**
-     * Validates the Task data.
+     * Validates the Task data. Also used by TaskWriteBehindQueue to reject
+     * invalid mutations before they are queued.
      *
      * @param task the Task to validate
      */
-    private void validate(Task task) {
+    void validate(Task task) {
         if (!StringUtils.hasText(task.getName())) {
             throw new IllegalArgumentException("Task name must be provided");
         }
         if (task.getName().length() > 100) {
             throw new IllegalArgumentException("Task name cannot exceed 100 characters");
         }
+        if (task.getStatus() == TaskStatus.EXPIRED) {
+            throw new IllegalArgumentException("Tasks only become EXPIRED when they are archived");
+        }
+    }
+
+    /**
+     * Sets the status of a task, recording the completion time when it is
+     * completed and clearing it when it is reopened.
+     *
+     * @param task   The task to update.
+     * @param status The new status.
+     */
+    private void applyStatus(Task task, TaskStatus status) {
+        if (status == TaskStatus.COMPLETED && (task.getStatus() != TaskStatus.COMPLETED
+                || task.getCompletedAt() == null)) {
+            task.setCompletedAt(LocalDateTime.now());
+        } else if (status == TaskStatus.OPEN) {
+            task.setCompletedAt(null);
+        }
+        task.setStatus(status);
     }
 
     /**
@@ -129,10 +220,28 @@ public class TaskService {
                     if (task.getUser() != null) {
                         dto.setUserName(task.getUser().getUsername());
                     }
+                    dto.setStatus(task.getStatus());
                     return dto;
                 });
     }
 
+    /**
+     * Retrieves a Task by its ID, selecting only the given fields.
+     * 
+     * @param id     The ID of the Task to retrieve.
+     * @param fields The fields to select; empty selects the full TaskDTO.
+     * @return An Optional containing the TaskDTO if found, or an empty Optional if
+     *         not.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TaskDTO> getTaskById(Long id, Set<TaskField> fields) {
+        if (fields.isEmpty()) {
+            return getTaskById(id);
+        }
+        Specification<Task> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return taskProjectionRepository.findTasks(byId, fields).stream().findFirst();
+    }
+
     /**
      * Retrieves all Tasks.
      * 
@@ -143,63 +252,294 @@ public class TaskService {
     }
 
     /**
-     * Searches for Tasks based on provided criteria.
+     * Retrieves all Tasks, selecting only the given fields.
+     * 
+     * @param fields The fields to select (not empty).
+     * @return A list of TaskDTOs with only the selected fields set.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getAllTasks(Set<TaskField> fields) {
+        return taskProjectionRepository.findTasks(null, fields);
+    }
+
+    /**
+     * Searches for Tasks based on provided criteria, in the hot TASKS table only.
      * 
      * @param name        The task name (optional).
      * @param description The task description (optional).
-     * @param deadlineStr The task deadline (yyyy-MM-dd format, optional).
+     * @param deadlineStr The task deadline (yyyy-MM-dd format, optional); tasks
+     *                    due at any time on that day match.
      * @param categoryId  The ID of the task category (optional).
      * @param userId      The ID of the task's assigned user (optional).
      * @return A list of TaskDTOs that match the search criteria.
+     * @throws IllegalArgumentException  If the deadline is not a valid date.
+     * @throws ResourceNotFoundException If userId is given but no such user
+     *                                   exists.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<TaskDTO> searchTasks(String name, String description, String deadlineStr, Long categoryId,
             Long userId) {
-        List<Task> tasks = taskRepository.findAll((Specification<Task>) (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        return searchTasks(name, description, deadlineStr, categoryId, userId, false);
+    }
+
+    /**
+     * Searches for Tasks based on provided criteria. The search is a single
+     * statement per table; an unknown user is only told apart from a user
+     * without matching tasks when the result is empty, through the
+     * (second-level cached) user lookup. Identical concurrent searches are
+     * coalesced into one query, so the method itself does not start a
+     * transaction: only the search that actually runs takes a (read-only) one,
+     * and the callers waiting for it hold no connection.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional);
+     *                        tasks due at any time on that day match.
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are searched as well.
+     * @return A list of TaskDTOs that match the search criteria, hot tasks
+     *         first.
+     * @throws IllegalArgumentException  If the deadline is not a valid date.
+     * @throws ResourceNotFoundException If userId is given but no such user
+     *                                   exists.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TaskDTO> searchTasks(String name, String description, String deadlineStr, Long categoryId,
+            Long userId, boolean includeArchived) {
+        return searchTasks(name, description, deadlineStr, categoryId, userId, includeArchived, Set.of());
+    }
 
-            if (StringUtils.hasText(name)) {
-                predicates.add(cb.like(
-                        cb.lower(root.get("name")),
-                        "%" + name.toLowerCase() + "%"));
+    /**
+     * Searches for Tasks based on provided criteria, selecting only the given
+     * fields (see searchTasks above).
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are searched as well.
+     * @param fields          The fields to select; empty selects full TaskDTOs.
+     * @return A list of TaskDTOs that match the search criteria.
+     * @throws IllegalArgumentException  If the deadline is not a valid date.
+     * @throws ResourceNotFoundException If userId is given but no such user
+     *                                   exists.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TaskDTO> searchTasks(String name, String description, String deadlineStr, Long categoryId,
+            Long userId, boolean includeArchived, Set<TaskField> fields) {
+        return searchTasks(TaskSearchCriteria.of(name, description, deadlineStr, categoryId, userId,
+                includeArchived).withFields(fields));
+    }
+
+    /**
+     * Searches for Tasks based on already normalized criteria (see searchTasks
+     * above).
+     * 
+     * @param criteria The normalized search criteria.
+     * @return A list of TaskDTOs that match the search criteria.
+     * @throws ResourceNotFoundException If the user filter names no existing
+     *                                   user.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TaskDTO> searchTasks(TaskSearchCriteria criteria) {
+        return searchTasks(criteria, readOnlyTransaction);
+    }
+
+    /**
+     * Searches for Tasks like searchTasks(criteria), running the search that
+     * actually executes in the given transaction; the callers sharing it wait
+     * outside of any transaction. Used by AsyncTaskSearchService to apply its
+     * deadline as the transaction timeout.
+     * 
+     * @param criteria    The normalized search criteria.
+     * @param transaction The read-only transaction of the executed search.
+     * @return A list of TaskDTOs that match the search criteria.
+     * @throws ResourceNotFoundException If the user filter names no existing
+     *                                   user.
+     */
+    List<TaskDTO> searchTasks(TaskSearchCriteria criteria, TransactionOperations transaction) {
+        return searchCoalescer.search(criteria, () -> transaction.execute(status -> search(criteria)));
+    }
+
+    /**
+     * Counts the Tasks matching the search criteria without loading them: a
+     * single SELECT COUNT per table, with the same filters as searchTasks.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are counted as well.
+     * @return The number of matching tasks.
+     * @throws IllegalArgumentException  If the deadline is not a valid date.
+     * @throws ResourceNotFoundException If userId is given but no such user
+     *                                   exists.
+     */
+    @Transactional(readOnly = true)
+    public long countTasks(String name, String description, String deadlineStr, Long categoryId, Long userId,
+            boolean includeArchived) {
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(name, description, deadlineStr, categoryId, userId,
+                includeArchived);
+        Long hot = snapshot.count(criteria);
+        long count;
+        if (hot != null) {
+            count = hot;
+        } else {
+            List<Long> ids = textIndex.match(criteria.getName(), criteria.getDescription());
+            count = ids != null && ids.isEmpty() ? 0 : searchPlans.countTasks(criteria, ids);
+        }
+        if (criteria.isIncludeArchived()) {
+            count += searchPlans.countArchivedTasks(criteria);
+        }
+        if (count == 0 && criteria.getUserId() != null) {
+            requireUser(criteria.getUserId());
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether any Task matches the search criteria without loading it: a
+     * SELECT 1 ... LIMIT 1, with the same filters as searchTasks. The archive is
+     * only queried when no hot task matches.
+     * 
+     * @param name            The task name (optional).
+     * @param description     The task description (optional).
+     * @param deadlineStr     The task deadline (yyyy-MM-dd format, optional).
+     * @param categoryId      The ID of the task category (optional).
+     * @param userId          The ID of the task's assigned user (optional).
+     * @param includeArchived Whether archived tasks are considered as well.
+     * @return True if at least one task matches.
+     * @throws IllegalArgumentException  If the deadline is not a valid date.
+     * @throws ResourceNotFoundException If userId is given but no such user
+     *                                   exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean existsTasks(String name, String description, String deadlineStr, Long categoryId, Long userId,
+            boolean includeArchived) {
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(name, description, deadlineStr, categoryId, userId,
+                includeArchived);
+        Long hot = snapshot.count(criteria);
+        boolean exists;
+        if (hot != null) {
+            exists = hot > 0;
+        } else {
+            List<Long> ids = textIndex.match(criteria.getName(), criteria.getDescription());
+            exists = (ids == null || !ids.isEmpty()) && searchPlans.existsTasks(criteria, ids);
+        }
+        exists = exists || (criteria.isIncludeArchived() && searchPlans.existsArchivedTasks(criteria));
+        if (!exists && criteria.getUserId() != null) {
+            requireUser(criteria.getUserId());
+        }
+        return exists;
+    }
+
+    /**
+     * Runs a task search. Full searches use the precompiled statement of their
+     * filter shape; sparse fieldset searches build a criteria query, as the
+     * selected fields multiply the number of shapes. Hot tasks are first
+     * narrowed to candidate IDs by the in-memory snapshot or, for substring
+     * filters, the trigram index when they can answer the search.
+     * 
+     * @param criteria The normalized search criteria.
+     * @return A list of TaskDTOs that match the search criteria.
+     */
+    private List<TaskDTO> search(TaskSearchCriteria criteria) {
+        List<Long> ids = snapshot.match(criteria);
+        if (ids == null) {
+            ids = textIndex.match(criteria.getName(), criteria.getDescription());
+        }
+        boolean noHotMatch = ids != null && ids.isEmpty();
+        List<TaskDTO> tasks;
+        if (criteria.getFields().isEmpty()) {
+            tasks = noHotMatch ? new ArrayList<>()
+                    : searchPlans.findTasks(criteria, ids).stream()
+                            .map(this::mapToTaskDTO)
+                            .collect(Collectors.toList());
+            if (criteria.isIncludeArchived()) {
+                searchPlans.findArchivedTasks(criteria).stream()
+                        .map(this::mapToTaskDTO)
+                        .forEach(tasks::add);
+            }
+        } else {
+            tasks = noHotMatch ? new ArrayList<>()
+                    : taskProjectionRepository.findTasks(hotSpecification(criteria, ids), criteria.getFields());
+            if (criteria.isIncludeArchived()) {
+                tasks.addAll(taskProjectionRepository.findArchivedTasks(archivedSpecification(criteria),
+                        criteria.getFields()));
             }
+        }
+
+        if (tasks.isEmpty() && criteria.getUserId() != null) {
+            requireUser(criteria.getUserId());
+        }
+        return tasks;
+    }
+
+    private static Specification<Task> hotSpecification(TaskSearchCriteria criteria, List<Long> ids) {
+        Specification<Task> specification = searchSpecification(criteria,
+                root -> root.get("category").get("id"), root -> root.get("user").get("id"));
+        return ids == null ? specification : specification.and((root, query, cb) -> root.get("id").in(ids));
+    }
 
-            if (StringUtils.hasText(description)) {
-                predicates.add(cb.like(
-                        cb.lower(root.get("description")),
-                        "%" + description.toLowerCase() + "%"));
+    private static Specification<ArchivedTask> archivedSpecification(TaskSearchCriteria criteria) {
+        return searchSpecification(criteria, root -> root.get("categoryId"), root -> root.get("userId"));
+    }
+
+    /**
+     * Builds the search Specification. Hot and archived tasks share the
+     * attribute names of the filtered columns except for the category and user,
+     * which are associations on Task and plain IDs on ArchivedTask.
+     * 
+     * @param criteria   The normalized search criteria.
+     * @param categoryId The path of the category ID.
+     * @param userId     The path of the user ID.
+     * @return The Specification.
+     */
+    private static <T> Specification<T> searchSpecification(TaskSearchCriteria criteria,
+            Function<Root<T>, Path<Long>> categoryId, Function<Root<T>, Path<Long>> userId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getName() != null) {
+                predicates.add(cb.like(root.get("nameNormalized"), "%" + criteria.getName() + "%"));
             }
 
-            LocalDateTime deadline = null;
-            try {
-                if (deadlineStr != null) {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd"); // Customize the pattern if
-                                                                                             // needed
-                    deadline = LocalDateTime.parse(deadlineStr, formatter);
-                }
-            } catch (DateTimeParseException e) {
-                logger.error("Invalid deadline format: {}", deadlineStr, e);
-                // Consider throwing an exception instead of returning an empty list
-                return cb.conjunction();
+            if (criteria.getDescription() != null) {
+                predicates.add(cb.like(root.get("descriptionNormalized"), "%" + criteria.getDescription() + "%"));
             }
 
-            if (deadline != null) {
-                predicates.add(cb.equal(root.get("deadline"), deadline)); // Corrected predicate for deadline
+            if (criteria.getDeadline() != null) {
+                LocalDateTime dayStart = criteria.getDeadline().atStartOfDay();
+                predicates.add(cb.greaterThanOrEqualTo(root.get("deadline"), dayStart));
+                predicates.add(cb.lessThan(root.get("deadline"), dayStart.plusDays(1)));
             }
 
-            if (categoryId != null) {
-                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            if (criteria.getCategoryId() != null) {
+                predicates.add(cb.equal(categoryId.apply(root), criteria.getCategoryId()));
             }
 
-            if (userId != null) {
-                predicates.add(cb.equal(root.get("user").get("id"), userId));
+            if (criteria.getUserId() != null) {
+                predicates.add(cb.equal(userId.apply(root), criteria.getUserId()));
             }
 
             return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
-        });
+        };
+    }
 
-        return tasks.stream()
-                .map(this::mapToTaskDTO)
-                .collect(Collectors.toList());
+    /**
+     * Checks that a user exists. Served from the second-level cache for known
+     * users.
+     * 
+     * @param userId The ID of the user.
+     * @throws ResourceNotFoundException If the user does not exist.
+     */
+    private void requireUser(Long userId) {
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
     }
 
     /**
@@ -220,6 +560,25 @@ public class TaskService {
         if (task.getUser() != null) {
             taskDTO.setUserName(task.getUser().getUsername());
         }
+        taskDTO.setStatus(task.getStatus());
+        return taskDTO;
+    }
+
+    /**
+     * Maps an ArchivedTask entity to a TaskDTO.
+     * 
+     * @param task The ArchivedTask entity to map.
+     * @return A TaskDTO object.
+     */
+    private TaskDTO mapToTaskDTO(ArchivedTask task) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setId(task.getId());
+        taskDTO.setName(task.getName());
+        taskDTO.setDescription(task.getDescription());
+        taskDTO.setDeadline(task.getDeadline());
+        taskDTO.setCategoryName(task.getCategoryName());
+        taskDTO.setUserName(task.getUserName());
+        taskDTO.setStatus(task.getStatus());
         return taskDTO;
     }
 
@@ -0,0 +1,247 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Write-behind queue for task mutations. Mutations are validated on the
+ * calling thread and put on a bounded queue; a single writer thread takes them
+ * off in batches and applies each batch through TaskService in one
+ * transaction (group commit), so that one commit is paid for the whole batch.
+ * A batch is closed when it is full or when the latency budget since its first
+ * mutation is used up. If a batch fails it is retried mutation by mutation, so
+ * that one bad mutation (e.g. an update of a deleted task) only fails itself.
+ * 
+ * Every mutation returns a future that completes once its transaction has
+ * committed, which callers may wait for as a durability acknowledgement.
+ */
+@Component
+public class TaskWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskWriteBehindQueue.class);
+
+    private final TaskService taskService;
+    private final TransactionTemplate transaction;
+    private final BlockingQueue<Mutation> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Constructor for TaskWriteBehindQueue.
+     * 
+     * @param taskService        The service applying the mutations.
+     * @param transactionManager The transaction manager for the group commits.
+     * @param queueCapacity      The number of mutations that may be queued.
+     * @param maxBatchSize       The maximum number of mutations per commit.
+     * @param maxDelayMillis     The latency budget: how long a batch may wait
+     *                           for more mutations after its first one.
+     * @param meterRegistry      The registry for the queue metrics.
+     */
+    public TaskWriteBehindQueue(TaskService taskService, PlatformTransactionManager transactionManager,
+            @Value("${todo.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${todo.write-behind.max-batch-size:256}") int maxBatchSize,
+            @Value("${todo.write-behind.max-delay-ms:10}") long maxDelayMillis,
+            MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        Gauge.builder("todo.write-behind.queue.depth", queue, BlockingQueue::size)
+                .description("Task mutations waiting to be written").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("todo.write-behind.batch.size")
+                .description("Task mutations per group commit").register(meterRegistry);
+        this.commitTimer = Timer.builder("todo.write-behind.commit")
+                .description("Duration of group commits").register(meterRegistry);
+        this.failed = Counter.builder("todo.write-behind.failed")
+                .description("Task mutations that could not be applied").register(meterRegistry);
+    }
+
+    /**
+     * Queues the creation of a task.
+     * 
+     * @param task The task to create.
+     * @return A future with the created task, completed once committed.
+     * @throws IllegalArgumentException If the task data is invalid.
+     * @throws TaskRejectedException    If the queue is full.
+     */
+    public CompletableFuture<Task> create(Task task) {
+        taskService.validate(task);
+        // A fresh entity per attempt: a rolled back batch leaves the generated ID
+        // on the instance it inserted.
+        return enqueue(new Mutation(() -> {
+            Task copy = new Task(task.getName(), task.getDescription(), task.getDeadline(), task.getCategory(),
+                    task.getUser());
+            copy.setStatus(task.getStatus());
+            return taskService.createTask(copy);
+        }));
+    }
+
+    /**
+     * Queues the update of a task.
+     * 
+     * @param id   The ID of the task to update.
+     * @param task The updated task data.
+     * @return A future with the updated task, completed once committed.
+     * @throws IllegalArgumentException If the task data is invalid.
+     * @throws TaskRejectedException    If the queue is full.
+     */
+    public CompletableFuture<Task> update(Long id, Task task) {
+        taskService.validate(task);
+        return enqueue(new Mutation(() -> taskService.updateTask(id, task)));
+    }
+
+    /**
+     * Queues the deletion of a task.
+     * 
+     * @param id The ID of the task to delete.
+     * @return A future completed once the deletion is committed.
+     * @throws TaskRejectedException If the queue is full.
+     */
+    public CompletableFuture<Task> delete(Long id) {
+        return enqueue(new Mutation(() -> {
+            taskService.deleteTask(id);
+            return null;
+        }));
+    }
+
+    private CompletableFuture<Task> enqueue(Mutation mutation) {
+        if (!running || !queue.offer(mutation)) {
+            throw new TaskRejectedException("Task write queue is full");
+        }
+        return mutation.result;
+    }
+
+    /**
+     * Writer loop: collects a batch and commits it.
+     */
+    private void drain() {
+        List<Mutation> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Mutation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Mutation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Mutation> batch) {
+        batchSize.record(batch.size());
+        List<Task> results = new ArrayList<>(batch.size());
+        try {
+            commitTimer.record(() -> transaction.executeWithoutResult(status -> {
+                results.clear();
+                for (Mutation mutation : batch) {
+                    results.add(mutation.action.get());
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.debug("Group commit of {} task mutations failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::writeOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results.get(i));
+        }
+    }
+
+    private void writeOne(Mutation mutation) {
+        try {
+            mutation.result.complete(transaction.execute(status -> mutation.action.get()));
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.warn("Queued task mutation failed: {}", e.getMessage());
+            mutation.result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drain, "task-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting mutations and waits for the queued ones to be written.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("{} queued task mutations were not written before shutdown", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * A queued mutation and the future acknowledging it.
+     */
+    private static final class Mutation {
+        private final Supplier<Task> action;
+        private final CompletableFuture<Task> result = new CompletableFuture<>();
+
+        private Mutation(Supplier<Task> action) {
+            this.action = action;
+        }
+    }
+}
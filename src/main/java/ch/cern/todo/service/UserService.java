@@ -3,12 +3,15 @@ package ch.cern.todo.service;
 import ch.cern.todo.config.SecurityConfig;
 import ch.cern.todo.model.User;
 import ch.cern.todo.repository.UserRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Dimitrios Milios
@@ -25,6 +28,11 @@ import java.util.Optional;
 @Transactional
 public class UserService { // Removed @Transactional - manage transactions explicitly
 
+    /**
+     * Properties the user list can be sorted by.
+     */
+    private static final Set<String> SORTABLE = Set.of("id", "username", "email", "roleType");
+
     private final UserRepository userRepository;
     private final SecurityConfig securityConfig;
 
@@ -50,6 +58,21 @@ public class UserService { // Removed @Transactional - manage transactions expli
         return userRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of users.
+     * 
+     * @param pageable The requested page and sort order.
+     * @param count    Whether to count the total number of users; when false a
+     *                 count-free Slice is returned instead of a Page.
+     * @return The requested page (or slice) of users.
+     * @throws IllegalArgumentException If the sort order is not supported.
+     */
+    @Transactional(readOnly = true)
+    public Slice<User> getUsers(Pageable pageable, boolean count) {
+        Pageable page = PageRequests.sanitize(pageable, SORTABLE, "id");
+        return count ? userRepository.findAll(page) : userRepository.findAllBy(page);
+    }
+
     /**
      * Retrieves a user by their ID.
      * 
@@ -0,0 +1,72 @@
+package ch.cern.todo.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Generation of the data behind a cache of read results, advanced on every
+ * write. A write advances it immediately and, when it runs inside a
+ * transaction, once more after the transaction completes: a result loaded
+ * while the write was in flight carries the generation in between and is
+ * never served once the write is visible. Shared by CategoryPayloadCache and
+ * TaskSearchCoalescer.
+ */
+final class WriteGeneration {
+
+    private final AtomicLong value = new AtomicLong();
+    private final Runnable onAdvance;
+
+    /**
+     * Constructor for WriteGeneration.
+     */
+    WriteGeneration() {
+        this(() -> {
+        });
+    }
+
+    /**
+     * Constructor for WriteGeneration.
+     *
+     * @param onAdvance Called after each increment, e.g. to drop a cached
+     *                  result early.
+     */
+    WriteGeneration(Runnable onAdvance) {
+        this.onAdvance = onAdvance;
+    }
+
+    /**
+     * Getter for the current generation.
+     *
+     * @return The generation, to be recorded with a loaded result.
+     */
+    long get() {
+        return value.get();
+    }
+
+    /**
+     * Advances the generation; when called inside a transaction, it is
+     * advanced once more after completion.
+     */
+    void advance() {
+        increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    increment();
+                }
+            });
+        }
+    }
+
+    private void increment() {
+        value.incrementAndGet();
+        onAdvance.run();
+    }
+}
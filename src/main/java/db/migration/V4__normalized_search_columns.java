@@ -0,0 +1,92 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Adds the normalized (lower-cased, accent-folded) name and description
+ * columns to TASKS and TASKS_ARCHIVE and indexes them. This is a Java
+ * migration because the existing rows are backfilled with the normalization
+ * of SearchText, which the application applies on every write; neither H2 nor
+ * PostgreSQL (without the unaccent extension) can fold accents in SQL. The
+ * folding is copied here rather than called, so that later changes to
+ * SearchText do not change what this migration does.
+ */
+public class V4__normalized_search_columns extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (String table : List.of("TASKS", "TASKS_ARCHIVE")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table + " ADD COLUMN NAME_NORMALIZED VARCHAR(100)");
+                statement.execute("ALTER TABLE " + table + " ADD COLUMN DESCRIPTION_NORMALIZED VARCHAR(255)");
+            }
+            backfill(connection, table);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN NAME_NORMALIZED SET NOT NULL");
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN DESCRIPTION_NORMALIZED SET NOT NULL");
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            // Prefix searches (LIKE 'abc%') become index range scans; contains
+            // searches scan the narrower index instead of the table.
+            statement.execute("CREATE INDEX IDX_TASKS_NAME_NORMALIZED ON TASKS (NAME_NORMALIZED)");
+            statement.execute("CREATE INDEX IDX_TASKS_DESCRIPTION_NORMALIZED ON TASKS (DESCRIPTION_NORMALIZED)");
+            statement.execute("CREATE INDEX IDX_TASKS_ARCHIVE_NAME_NORMALIZED ON TASKS_ARCHIVE (NAME_NORMALIZED)");
+        }
+    }
+
+    private static void backfill(Connection connection, String table) throws SQLException {
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery(
+                        "SELECT TASK_ID, TASK_NAME, TASK_DESCRIPTION FROM " + table);
+                PreparedStatement update = connection.prepareStatement("UPDATE " + table
+                        + " SET NAME_NORMALIZED = ?, DESCRIPTION_NORMALIZED = ? WHERE TASK_ID = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                update.setString(1, normalize(rows.getString(2)));
+                update.setString(2, normalize(rows.getString(3)));
+                update.setLong(3, rows.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * The SearchText normalization as of this migration: lower-cased, combining
+     * marks removed and recomposed.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return Normalizer.normalize(COMBINING_MARKS.matcher(decomposed).replaceAll(""), Normalizer.Form.NFC);
+    }
+}
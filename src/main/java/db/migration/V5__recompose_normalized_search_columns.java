@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * @author Dimitrios Milios
+ */
+
+/**
+ * Re-normalizes the NAME_NORMALIZED and DESCRIPTION_NORMALIZED columns of
+ * databases migrated by the first release of V4, which left the text
+ * decomposed after removing the accents: Hangul syllables, for instance, were
+ * stored as their separate jamo and could not be found by a search for the
+ * syllable. Only the rows whose stored form differs are updated. Like V4, the
+ * migration carries its own copy of the SearchText folding.
+ */
+public class V5__recompose_normalized_search_columns extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (String table : List.of("TASKS", "TASKS_ARCHIVE")) {
+            renormalize(connection, table);
+        }
+    }
+
+    private static void renormalize(Connection connection, String table) throws SQLException {
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery("SELECT TASK_ID, TASK_NAME, TASK_DESCRIPTION, "
+                        + "NAME_NORMALIZED, DESCRIPTION_NORMALIZED FROM " + table);
+                PreparedStatement update = connection.prepareStatement("UPDATE " + table
+                        + " SET NAME_NORMALIZED = ?, DESCRIPTION_NORMALIZED = ? WHERE TASK_ID = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                String name = normalize(rows.getString(2));
+                String description = normalize(rows.getString(3));
+                if (Objects.equals(name, rows.getString(4)) && Objects.equals(description, rows.getString(5))) {
+                    continue;
+                }
+                update.setString(1, name);
+                update.setString(2, description);
+                update.setLong(3, rows.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * The SearchText normalization as of this migration: lower-cased, combining
+     * marks removed and recomposed.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return Normalizer.normalize(COMBINING_MARKS.matcher(decomposed).replaceAll(""), Normalizer.Form.NFC);
+    }
+}
@@ -0,0 +1,32 @@
+-- Initial schema for the todo application. Written in the SQL subset shared by
+-- H2 and PostgreSQL so that the same migrations run on both.
+
+CREATE TABLE TASK_CATEGORIES (
+    CATEGORY_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    NAME VARCHAR(255) NOT NULL,
+    DESCRIPTION VARCHAR(255) NOT NULL,
+    CONSTRAINT UK_TASK_CATEGORIES_NAME UNIQUE (NAME)
+);
+
+CREATE TABLE USERS (
+    USER_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    USER_NAME VARCHAR(255) NOT NULL,
+    PASSWORD VARCHAR(255) NOT NULL,
+    EMAIL VARCHAR(255) NOT NULL,
+    ROLE_TYPE VARCHAR(20) NOT NULL,
+    CONSTRAINT UK_USERS_USER_NAME UNIQUE (USER_NAME),
+    CONSTRAINT UK_USERS_EMAIL UNIQUE (EMAIL),
+    CONSTRAINT CK_USERS_ROLE_TYPE CHECK (ROLE_TYPE IN ('ADMIN', 'USER'))
+);
+
+CREATE TABLE TASKS (
+    TASK_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    TASK_NAME VARCHAR(100) NOT NULL,
+    TASK_DESCRIPTION VARCHAR(255) NOT NULL,
+    DEADLINE TIMESTAMP(6) NOT NULL,
+    CATEGORY_ID BIGINT NOT NULL,
+    USER_ID BIGINT NOT NULL,
+    CONSTRAINT UK_TASKS_TASK_NAME UNIQUE (TASK_NAME),
+    CONSTRAINT FK_TASKS_CATEGORY FOREIGN KEY (CATEGORY_ID) REFERENCES TASK_CATEGORIES (CATEGORY_ID),
+    CONSTRAINT FK_TASKS_USER FOREIGN KEY (USER_ID) REFERENCES USERS (USER_ID)
+);
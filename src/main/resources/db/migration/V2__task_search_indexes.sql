@@ -0,0 +1,6 @@
+-- Indexes backing the task queries: per-user searches with a deadline filter
+-- (TaskService.searchTasks), findByCategory_Id and findByDeadlineBetween.
+
+CREATE INDEX IDX_TASKS_USER_DEADLINE ON TASKS (USER_ID, DEADLINE);
+CREATE INDEX IDX_TASKS_CATEGORY ON TASKS (CATEGORY_ID);
+CREATE INDEX IDX_TASKS_DEADLINE ON TASKS (DEADLINE);
@@ -0,0 +1,30 @@
+-- Task lifecycle (status and completion time) and the archive table that old
+-- completed and expired tasks are moved to by the TaskArchiver, keeping the hot
+-- TASKS table, its indexes and the second-level cache small.
+
+ALTER TABLE TASKS ADD COLUMN STATUS VARCHAR(20) DEFAULT 'OPEN' NOT NULL;
+ALTER TABLE TASKS ADD COLUMN COMPLETED_AT TIMESTAMP(6);
+ALTER TABLE TASKS ADD CONSTRAINT CK_TASKS_STATUS CHECK (STATUS IN ('OPEN', 'COMPLETED'));
+
+CREATE INDEX IDX_TASKS_STATUS_COMPLETED_AT ON TASKS (STATUS, COMPLETED_AT);
+
+-- Archived tasks are immutable history: category and user names are copied so
+-- that archived tasks can be listed without joins, and there are no foreign
+-- keys, so that categories and users can be removed independently.
+CREATE TABLE TASKS_ARCHIVE (
+    TASK_ID BIGINT PRIMARY KEY,
+    TASK_NAME VARCHAR(100) NOT NULL,
+    TASK_DESCRIPTION VARCHAR(255) NOT NULL,
+    DEADLINE TIMESTAMP(6) NOT NULL,
+    STATUS VARCHAR(20) NOT NULL,
+    COMPLETED_AT TIMESTAMP(6),
+    CATEGORY_ID BIGINT NOT NULL,
+    CATEGORY_NAME VARCHAR(255),
+    USER_ID BIGINT NOT NULL,
+    USER_NAME VARCHAR(255),
+    ARCHIVED_AT TIMESTAMP(6) NOT NULL,
+    CONSTRAINT CK_TASKS_ARCHIVE_STATUS CHECK (STATUS IN ('COMPLETED', 'EXPIRED'))
+);
+
+CREATE INDEX IDX_TASKS_ARCHIVE_USER_DEADLINE ON TASKS_ARCHIVE (USER_ID, DEADLINE);
+CREATE INDEX IDX_TASKS_ARCHIVE_CATEGORY ON TASKS_ARCHIVE (CATEGORY_ID);
@@ -0,0 +1,284 @@
+package ch.cern.todo;
+
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.model.TaskStatus;
+import ch.cern.todo.service.TaskArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end smoke tests over HTTP. They run against the JVM build with
+ * ./gradlew test and against the native binary with ./gradlew nativeTest, and
+ * cover the paths that depend on reflection: JSON binding of the entities and
+ * DTOs, JPA, the H2 driver, Flyway and the security configuration.
+ *
+ * The tests share one in-memory database, so each test creates its own
+ * category, user and tasks under names no other test uses.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TodoApplicationSmokeTests {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_ARRAY =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    private TestRestTemplate admin;
+
+    @BeforeEach
+    void authenticate() {
+        admin = restTemplate.withBasicAuth("admin", "admin123");
+    }
+
+    @Test
+    void rejectsNonAdminUsers() {
+        ResponseEntity<String> response = restTemplate.withBasicAuth("user", "user123")
+                .getForEntity("/api/tasks/search", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void reportsReadinessAfterWarmUp() {
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+        assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readiness.getBody()).contains("\"status\":\"UP\"");
+    }
+
+    @Test
+    void createsAndSearchesTasks() {
+        ResponseEntity<Map<String, Object>> category = post("/api/categories",
+                Map.of("name", "smoke", "description", "Smoke test category"));
+        assertThat(category.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Map<String, Object>> user = post("/api/users", Map.of("username", "smoke-user",
+                "password", "secret", "email", "smoke@example.org", "roleType", "USER"));
+        assertThat(user.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(user.getBody()).doesNotContainKey("password");
+
+        Fixture fixture = new Fixture(category.getBody().get("id"), user.getBody().get("id"));
+        ResponseEntity<Map<String, Object>> task = createTask(fixture, "smoke test task", "2030-01-01T09:00:00");
+        assertThat(task.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<TaskDTO> byId = admin.getForEntity("/api/tasks/{id}", TaskDTO.class,
+                task.getBody().get("id"));
+        assertThat(byId.getBody().getCategoryName()).isEqualTo("smoke");
+        assertThat(byId.getBody().getUserName()).isEqualTo("smoke-user");
+
+        ResponseEntity<TaskDTO[]> found = admin.getForEntity("/api/tasks/search?name=SMOKE&userId={userId}",
+                TaskDTO[].class, fixture.userId);
+        assertThat(found.getBody()).extracting(TaskDTO::getName).containsExactly("smoke test task");
+        assertThat(admin.getForEntity("/api/tasks/search/async?name=SMOKE&userId={userId}&timeoutMs=5000",
+                TaskDTO[].class, fixture.userId).getBody()).extracting(TaskDTO::getName)
+                .containsExactly("smoke test task");
+
+        ResponseEntity<TaskDTO[]> byDay = admin.getForEntity("/api/tasks/search?deadlineStr=2030-01-01&userId={userId}",
+                TaskDTO[].class, fixture.userId);
+        assertThat(byDay.getBody()).hasSize(1);
+
+        ResponseEntity<String> badDeadline = admin.getForEntity("/api/tasks/search?deadlineStr=01.01.2030",
+                String.class);
+        assertThat(badDeadline.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        ResponseEntity<String> unknownUser = admin.getForEntity("/api/tasks/search?userId=999999", String.class);
+        assertThat(unknownUser.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        ResponseEntity<String> categories = admin.getForEntity("/api/categories", String.class);
+        assertThat(categories.getBody()).contains("\"name\":\"smoke\"");
+    }
+
+    @Test
+    void selectsSparseFieldsets() {
+        Fixture fixture = fixture("sparse");
+        ResponseEntity<Map<String, Object>> task = createTask(fixture, "sparse task", "2030-02-01T09:00:00");
+
+        assertThat(get("/api/tasks/{id}?fields=id,name", task.getBody().get("id")).getBody())
+                .containsOnlyKeys("id", "name");
+        assertThat(getList("/api/tasks/search?name=sparse&fields=name,userName").getBody())
+                .containsExactly(Map.of("name", "sparse task", "userName", "sparse-user"));
+        assertThat(getList("/api/tasks?fields=id,deadline").getBody())
+                .allSatisfy(dto -> assertThat(dto).containsOnlyKeys("id", "deadline"));
+        assertThat(admin.getForEntity("/api/tasks/search?fields=password", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void countsAndChecksMatches() {
+        Fixture fixture = fixture("counted");
+        createTask(fixture, "counted task", "2030-03-01T09:00:00");
+
+        assertThat(get("/api/tasks/search/count?name=counted").getBody()).isEqualTo(Map.of("count", 1));
+        assertThat(get("/api/tasks/search/exists?name=no-such-task").getBody())
+                .isEqualTo(Map.of("exists", false));
+        assertThat(admin.exchange("/api/tasks/search?name=counted", HttpMethod.HEAD, null, Void.class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(admin.exchange("/api/tasks/search?name=no-such-task", HttpMethod.HEAD, null, Void.class)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void acknowledgesQueuedWrites() {
+        Fixture fixture = fixture("queued");
+        ResponseEntity<Map<String, Object>> queued = post("/api/tasks?ack=durable", taskBody(fixture,
+                "queued task", "2030-04-01T09:00:00"));
+        assertThat(queued.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(queued.getBody().get("id")).isNotNull();
+
+        ResponseEntity<String> invalid = admin.postForEntity("/api/tasks?ack=queued", Map.of("name", ""),
+                String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void archivesExpiredTasks() {
+        Fixture fixture = fixture("archived");
+        ResponseEntity<Map<String, Object>> expired = createTask(fixture, "long expired task",
+                "2001-01-01T09:00:00");
+        assertThat(expired.getBody().get("status")).isEqualTo("OPEN");
+
+        Map<String, Object> completedTask = taskBody(fixture, "completed task", "2030-05-01T09:00:00");
+        completedTask.put("status", "COMPLETED");
+        completedTask.put("completedAt", "2000-01-01T00:00:00");
+        ResponseEntity<Map<String, Object>> completed = post("/api/tasks", completedTask);
+        assertThat(completed.getBody().get("completedAt")).isNotEqualTo("2000-01-01T00:00:00");
+
+        assertThat(taskArchiver.archive()).isEqualTo(1);
+        assertThat(admin.getForEntity("/api/tasks/search?name=expired", TaskDTO[].class).getBody()).isEmpty();
+        assertThat(admin.getForEntity("/api/tasks/search?name=expired&includeArchived=true", TaskDTO[].class)
+                .getBody()).extracting(TaskDTO::getStatus).containsExactly(TaskStatus.EXPIRED);
+    }
+
+    @Test
+    void bulkUpdatesTasks() {
+        Fixture fixture = fixture("bulk");
+        Fixture target = fixture("bulk-target");
+        createTask(fixture, "bulk task 1", "2030-06-01T09:00:00");
+        createTask(fixture, "bulk task 2", "2030-06-02T09:00:00");
+
+        ResponseEntity<Map<String, Object>> moved = post("/api/tasks/bulk-update",
+                Map.of("categoryId", fixture.categoryId, "newUserId", target.userId));
+        assertThat(moved.getBody()).containsEntry("selected", 2).containsEntry("updated", 2);
+        assertThat(admin.getForEntity("/api/tasks/search?userId={userId}", TaskDTO[].class, target.userId)
+                .getBody()).extracting(TaskDTO::getName).containsExactlyInAnyOrder("bulk task 1", "bulk task 2");
+
+        assertThat(admin.postForEntity("/api/tasks/bulk-update", Map.of("userId", fixture.userId), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(admin.postForEntity("/api/tasks/bulk-update", Map.of("newUserId", target.userId), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void importsTasks() {
+        Fixture fixture = fixture("import");
+        createTask(fixture, "existing import task", "2030-07-01T09:00:00");
+
+        HttpHeaders csv = new HttpHeaders();
+        csv.setContentType(MediaType.parseMediaType("text/csv"));
+        ResponseEntity<Map<String, Object>> imported = post("/api/tasks/import", new HttpEntity<>(
+                "name,deadline,category,user,description\n"
+                        + "imported task,2030-07-02T09:00:00,import,import-user,\"Imported, from CSV\"\n"
+                        + "existing import task,2030-07-02T09:00:00,import,import-user,duplicate name\n"
+                        + "orphan task,2030-07-02T09:00:00,missing,import-user,\n", csv));
+        assertThat(imported.getBody()).containsEntry("records", 3).containsEntry("imported", 1)
+                .containsEntry("rejected", 2);
+        assertThat(admin.getForEntity("/api/tasks/search?description=from csv", TaskDTO[].class).getBody())
+                .extracting(TaskDTO::getName).containsExactly("imported task");
+    }
+
+    @Test
+    void rejectsBackupOfInMemoryDatabase() {
+        // the tests run on an in-memory database, which BACKUP TO cannot copy
+        assertThat(admin.postForEntity("/api/admin/backup", null, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void paginatesUsers() {
+        for (String name : new String[] { "page-user-a", "page-user-b" }) {
+            post("/api/users", Map.of("username", name, "password", "secret",
+                    "email", name + "@example.org", "roleType", "USER"));
+        }
+
+        ResponseEntity<List<Map<String, Object>>> all = getList("/api/users");
+        assertThat(all.getBody()).extracting(u -> u.get("username")).contains("page-user-a", "page-user-b");
+        assertThat(all.getHeaders().getFirst("X-Total-Count")).isNotNull();
+
+        ResponseEntity<List<Map<String, Object>>> first = getList("/api/users?size=1&sort=username");
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).hasSize(1);
+        assertThat(first.getBody().get(0)).containsKey("username").doesNotContainKey("password");
+        assertThat(first.getHeaders().getFirst("X-Total-Count")).isNotNull();
+
+        ResponseEntity<List<Map<String, Object>>> slice = getList("/api/users?size=1&count=false");
+        assertThat(slice.getHeaders().getFirst("X-Total-Count")).isNull();
+        assertThat(slice.getHeaders().getFirst("Link")).contains("rel=\"next\"");
+
+        assertThat(admin.getForEntity("/api/users?sort=password", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(getList("/api/categories?page=0&sort=name,desc").getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    /**
+     * Creates a category named after the prefix and a user named prefix-user.
+     */
+    private Fixture fixture(String prefix) {
+        ResponseEntity<Map<String, Object>> category = post("/api/categories",
+                Map.of("name", prefix, "description", prefix + " tasks"));
+        ResponseEntity<Map<String, Object>> user = post("/api/users", Map.of("username", prefix + "-user",
+                "password", "secret", "email", prefix + "@example.org", "roleType", "USER"));
+        return new Fixture(category.getBody().get("id"), user.getBody().get("id"));
+    }
+
+    private ResponseEntity<Map<String, Object>> createTask(Fixture fixture, String name, String deadline) {
+        return post("/api/tasks", taskBody(fixture, name, deadline));
+    }
+
+    private static Map<String, Object> taskBody(Fixture fixture, String name, String deadline) {
+        return new HashMap<>(Map.of("name", name, "description", "Created by the smoke test",
+                "deadline", deadline, "category", Map.of("id", fixture.categoryId),
+                "user", Map.of("id", fixture.userId)));
+    }
+
+    private ResponseEntity<Map<String, Object>> get(String url, Object... uriVariables) {
+        return admin.exchange(url, HttpMethod.GET, null, JSON_OBJECT, uriVariables);
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> getList(String url, Object... uriVariables) {
+        return admin.exchange(url, HttpMethod.GET, null, JSON_ARRAY, uriVariables);
+    }
+
+    private ResponseEntity<Map<String, Object>> post(String url, Object body) {
+        HttpEntity<?> entity = body instanceof HttpEntity<?> prepared ? prepared : new HttpEntity<>(body);
+        return admin.exchange(url, HttpMethod.POST, entity, JSON_OBJECT);
+    }
+
+    /**
+     * The category and user the tasks of a test belong to.
+     */
+    private record Fixture(Object categoryId, Object userId) {
+    }
+}
@@ -0,0 +1,95 @@
+package ch.cern.todo.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the H2 backup archive restore.
+ */
+class DatabaseRestoreTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resolvesH2FileDatabases() {
+        assertThat(H2DatabaseFile.of("jdbc:h2:file:./data/mydb;CACHE_SIZE=65536"))
+                .isEqualTo(Path.of("./data/mydb.mv.db"));
+        assertThat(H2DatabaseFile.of("jdbc:h2:./data/mydb")).isEqualTo(Path.of("./data/mydb.mv.db"));
+        assertThat(H2DatabaseFile.of("jdbc:h2:mem:todo-test;DB_CLOSE_DELAY=-1")).isNull();
+        assertThat(H2DatabaseFile.of("jdbc:h2:tcp://localhost/~/todo")).isNull();
+        assertThat(H2DatabaseFile.of("jdbc:postgresql://localhost:5432/todo")).isNull();
+    }
+
+    @Test
+    void restoresTheBackedUpState() throws SQLException, IOException {
+        String url = "jdbc:h2:file:" + dir.resolve("todo");
+        Path backup = dir.resolve("backup.zip");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE NOTES (TEXT VARCHAR(20))");
+            statement.execute("INSERT INTO NOTES VALUES ('backed up')");
+            statement.execute("BACKUP TO '" + backup + "'");
+            statement.execute("INSERT INTO NOTES VALUES ('lost')");
+        }
+
+        long size = DatabaseRestore.restore(backup, H2DatabaseFile.of(url), true);
+
+        assertThat(size).isPositive();
+        assertThat(savedFiles()).hasSize(1);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                ResultSet notes = connection.createStatement().executeQuery("SELECT TEXT FROM NOTES")) {
+            assertThat(notes.next()).isTrue();
+            assertThat(notes.getString(1)).isEqualTo("backed up");
+            assertThat(notes.next()).isFalse();
+        }
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(Path::toString)).noneMatch(name -> name.endsWith(".restore"));
+        }
+    }
+
+    @Test
+    void restoresAnArchiveOnlyOnce() throws SQLException, IOException {
+        String url = "jdbc:h2:file:" + dir.resolve("todo");
+        Path backup = dir.resolve("backup.zip");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE NOTES (TEXT VARCHAR(20))");
+            statement.execute("BACKUP TO '" + backup + "'");
+        }
+        assertThat(DatabaseRestore.restore(backup, H2DatabaseFile.of(url), false)).isPositive();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO NOTES VALUES ('after restore')");
+        }
+
+        // e.g. a restart with todo.restore.from still set
+        assertThat(DatabaseRestore.restore(backup, H2DatabaseFile.of(url), false)).isZero();
+
+        assertThat(savedFiles()).hasSize(1);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                ResultSet notes = connection.createStatement().executeQuery("SELECT TEXT FROM NOTES")) {
+            assertThat(notes.next()).isTrue();
+            assertThat(notes.getString(1)).isEqualTo("after restore");
+        }
+    }
+
+    private List<Path> savedFiles() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("todo.mv.db.before-restore-"))
+                    .toList();
+        }
+    }
+}
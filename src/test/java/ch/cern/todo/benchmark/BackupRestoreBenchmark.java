@@ -0,0 +1,111 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.TodoApplication;
+import ch.cern.todo.backup.DatabaseBackup;
+import ch.cern.todo.backup.DatabaseRestore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures an online backup of an H2 file database holding the synthetic
+ * dataset while searches keep running, and the restore-to-ready time of the
+ * application started with --todo.restore.from, with and without the page
+ * cache warm-up, followed by the time of a first full scan of the tasks. The
+ * measurement is repeated per dataset size, so that the times can be read
+ * against the database size; set the sizes with
+ * ./gradlew benchmark -Dbenchmark.backup.tasks=10000,100000,1000000.
+ *
+ * Note that the backup was just written, so it is in the page cache already;
+ * the warm-up pays off after a reboot or on a node the archive was copied to.
+ */
+@Tag("benchmark")
+class BackupRestoreBenchmark {
+
+    private static final String SCAN = "SELECT COUNT(*) FROM TASKS WHERE TASK_DESCRIPTION LIKE '%sprint 7%'";
+
+    @TempDir
+    Path dir;
+
+    static IntStream sizes() {
+        return Arrays.stream(System.getProperty("benchmark.backup.tasks", "10000,50000,200000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sizes")
+    void measureBackupAndRestore(int tasks) throws Exception {
+        Path backup = dir.resolve("backup.zip");
+        DatabaseBackup.Result result;
+        long count;
+        try (ConfigurableApplicationContext context = start("source", null, true)) {
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                SyntheticDataset.populate(connection, tasks);
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            count = jdbcTemplate.queryForObject(SCAN, Long.class);
+            // keep the database busy while the backup runs
+            Thread reader = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    jdbcTemplate.queryForObject(SCAN, Long.class);
+                }
+            });
+            reader.start();
+            try {
+                result = context.getBean(DatabaseBackup.class).backup(backup);
+            } finally {
+                reader.interrupt();
+                reader.join();
+            }
+        }
+        System.out.printf("%d tasks: database %d KB, backup %d KB in %d ms%n", tasks,
+                result.getDatabaseBytes() / 1024, result.getSizeBytes() / 1024, result.getElapsedMillis());
+
+        System.out.printf("%-10s %18s %16s%n", "warm-up", "restore-to-ready", "first scan");
+        for (boolean warmUp : new boolean[] { false, true }) {
+            long start = System.nanoTime();
+            try (ConfigurableApplicationContext context = start("restored-" + warmUp, backup, warmUp)) {
+                long ready = System.nanoTime();
+                long restored = new JdbcTemplate(context.getBean(DataSource.class)).queryForObject(SCAN, Long.class);
+                long scanned = System.nanoTime();
+                assertThat(restored).isEqualTo(count);
+                System.out.printf("%-10s %15d ms %13d ms%n", warmUp, (ready - start) / 1_000_000,
+                        (scanned - ready) / 1_000_000);
+            }
+        }
+        assertThat(Files.size(backup)).isPositive();
+    }
+
+    /**
+     * Starts the application on a file database; the settings are passed as
+     * arguments to override the in-memory URL of the benchmark task.
+     */
+    private ConfigurableApplicationContext start(String name, Path backup, boolean warmUp) {
+        List<String> args = new ArrayList<>(List.of("--spring.datasource.url=jdbc:h2:file:" + dir.resolve(name),
+                "--todo.archive.enabled=false", "--todo.search.trigram.enabled=false",
+                "--todo.restore.warm-up=" + warmUp));
+        if (backup != null) {
+            args.add("--todo.restore.from=" + backup);
+        }
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .listeners(new DatabaseRestore())
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,103 @@
+package ch.cern.todo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares the default H2 settings against the tuned settings of the prod
+ * profile on the synthetic dataset. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class H2ProfileBenchmark {
+
+    private static final String TUNED = ";CACHE_SIZE=65536;WRITE_DELAY=100;PAGE_SIZE=16384"
+            + ";AUTO_COMPACT_FILL_RATE=90;QUERY_CACHE_SIZE=64";
+    private static final int SINGLE_WRITES = 2_000;
+    private static final int QUERIES = 500;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compareDefaultAndTunedProfiles() throws SQLException {
+        Result defaults = run("jdbc:h2:file:" + dir.resolve("default"));
+        Result tuned = run("jdbc:h2:file:" + dir.resolve("tuned") + TUNED);
+        System.out.printf("%-8s %12s %16s %16s %16s%n", "profile", "load [ms]", "commit [us/op]", "search [us/op]",
+                "cold open [ms]");
+        defaults.print("default");
+        tuned.print("tuned");
+    }
+
+    private Result run(String url) throws SQLException {
+        Result result = new Result();
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            SyntheticDataset.createSchema(connection);
+            SyntheticDataset.populate(connection);
+            result.loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Single-row transactions, as issued by TaskService.createTask.
+            start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(SyntheticDataset.INSERT_TASK)) {
+                for (int i = 1; i <= SINGLE_WRITES; i++) {
+                    SyntheticDataset.bindTask(insert, SyntheticDataset.TASKS + i);
+                    insert.executeUpdate();
+                }
+            }
+            result.commitMicros = (System.nanoTime() - start) / 1_000 / SINGLE_WRITES;
+            result.searchMicros = search(connection);
+        }
+
+        start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            search(connection, 1);
+        }
+        result.coldOpenMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private long search(Connection connection) throws SQLException {
+        search(connection, QUERIES / 5); // warm-up
+        long start = System.nanoTime();
+        search(connection, QUERIES);
+        return (System.nanoTime() - start) / 1_000 / QUERIES;
+    }
+
+    private void search(Connection connection, int count) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT t.TASK_ID, t.TASK_NAME, c.NAME, u.USER_NAME FROM TASKS t "
+                        + "JOIN TASK_CATEGORIES c ON c.CATEGORY_ID = t.CATEGORY_ID "
+                        + "JOIN USERS u ON u.USER_ID = t.USER_ID "
+                        + "WHERE LOWER(t.TASK_NAME) LIKE ? AND t.USER_ID = ?")) {
+            for (int i = 0; i < count; i++) {
+                query.setString(1, "%" + SyntheticDataset.taskName(i).substring(0, 4) + "%");
+                query.setLong(2, 1 + (i % SyntheticDataset.USERS));
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        rows.getLong(1);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Result {
+        long loadMillis;
+        long commitMicros;
+        long searchMicros;
+        long coldOpenMillis;
+
+        void print(String profile) {
+            System.out.printf("%-8s %12d %16d %16d %16d%n", profile, loadMillis, commitMicros, searchMicros,
+                    coldOpenMillis);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.model.Task;
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.service.TaskSearchCriteria;
+import ch.cern.todo.service.TaskSearchPlans;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares the per-request cost of a selective task search built as a criteria
+ * query (the former Specification path) with the precompiled statement of its
+ * filter shape (TaskSearchPlans), together with the Hibernate query plan cache
+ * hit rate. The searches go through the user index and match a handful of
+ * rows, so translation is a large part of their cost. Run with ./gradlew
+ * benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:todo-plan-benchmark;DB_CLOSE_DELAY=-1")
+class SearchPlanCacheBenchmark {
+
+    private static final int SEARCHES = 20_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskSearchPlans searchPlans;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareCriteriaAndPrecompiledSearches() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SyntheticDataset.populate(connection);
+        }
+        Function<TaskSearchCriteria, List<Task>> criteria = c -> taskRepository.findAll(specification(c));
+        Function<TaskSearchCriteria, List<Task>> precompiled = searchPlans::findTasks;
+        run(criteria, SEARCHES / 5); // warm-up
+        run(precompiled, SEARCHES / 5);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        System.out.printf("%-12s %10s %12s %12s %8s%n", "path", "us/search", "plan hits", "plan misses", "hit %");
+        for (String path : List.of("criteria", "precompiled")) {
+            statistics.clear();
+            long start = System.nanoTime();
+            run(path.equals("criteria") ? criteria : precompiled, SEARCHES);
+            long micros = (System.nanoTime() - start) / 1_000 / SEARCHES;
+            long hits = statistics.getQueryPlanCacheHitCount();
+            long misses = statistics.getQueryPlanCacheMissCount();
+            System.out.printf("%-12s %10d %12d %12d %7.1f%%%n", path, micros, hits, misses,
+                    hits + misses == 0 ? 0.0 : 100.0 * hits / (hits + misses));
+        }
+    }
+
+    private void run(Function<TaskSearchCriteria, List<Task>> search, int searches) {
+        for (int i = 1; i <= searches; i++) {
+            int n = 1 + (i % SyntheticDataset.TASKS);
+            TaskSearchCriteria criteria = TaskSearchCriteria.of("#" + n, null, null, null,
+                    1L + (n % SyntheticDataset.USERS));
+            transactionTemplate.executeWithoutResult(status -> search.apply(criteria));
+        }
+    }
+
+    /**
+     * The criteria query TaskService built before the precompiled statements.
+     */
+    private static Specification<Task> specification(TaskSearchCriteria criteria) {
+        return (root, query, cb) -> cb.and(
+                cb.like(cb.lower(root.get("name")), "%" + criteria.getName() + "%"),
+                cb.equal(root.get("user").get("id"), criteria.getUserId()));
+    }
+}
@@ -0,0 +1,106 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.service.TaskCategoryService;
+import ch.cern.todo.service.TaskService;
+import ch.cern.todo.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures second-level cache hit rates on a read-heavy mix (90% lookups by
+ * id through the services, 10% task updates). Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class SecondLevelCacheBenchmark {
+
+    private static final int TASKS = Math.min(SyntheticDataset.TASKS, 5_000);
+    private static final int OPERATIONS = 50_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskCategoryService taskCategoryService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readHeavyMix() {
+        List<TaskCategory> categories = new ArrayList<>();
+        for (int i = 1; i <= SyntheticDataset.CATEGORIES; i++) {
+            categories.add(taskCategoryRepository.save(new TaskCategory("l2-category-" + i, "Category " + i)));
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= SyntheticDataset.USERS; i++) {
+            users.add(userRepository.save(new User("l2-user-" + i, "secret", "l2-user-" + i + "@example.org",
+                    RoleType.USER)));
+        }
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 1; i <= TASKS; i++) {
+            taskIds.add(taskRepository.save(new Task("l2 " + SyntheticDataset.taskName(i), "Synthetic task",
+                    SyntheticDataset.deadline(i), categories.get(i % categories.size()),
+                    users.get(i % users.size()))).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int dice = random.nextInt(100);
+            Long taskId = taskIds.get(random.nextInt(taskIds.size()));
+            if (dice < 60) {
+                taskService.getTaskById(taskId);
+            } else if (dice < 75) {
+                userService.getUserById(users.get(random.nextInt(users.size())).getId());
+            } else if (dice < 90) {
+                taskCategoryService.getCategoryById(categories.get(random.nextInt(categories.size())).getId());
+            } else {
+                int n = random.nextInt(TASKS) + 1;
+                Task update = new Task("l2 " + SyntheticDataset.taskName(n), "Updated task",
+                        SyntheticDataset.deadline(n + i), categories.get(n % categories.size()),
+                        users.get(n % users.size()));
+                taskService.updateTask(taskIds.get(n - 1), update);
+            }
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / OPERATIONS;
+
+        System.out.printf("%d operations, %d us/op, %d JDBC statements%n", OPERATIONS, micros,
+                statistics.getPrepareStatementCount());
+        System.out.printf("%-32s %10s %10s %10s %8s%n", "region", "hits", "misses", "puts", "hit %");
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long requests = stats.getHitCount() + stats.getMissCount();
+            System.out.printf("%-32s %10d %10d %10d %7.1f%%%n", region, stats.getHitCount(), stats.getMissCount(),
+                    stats.getPutCount(), requests == 0 ? 0.0 : 100.0 * stats.getHitCount() / requests);
+        }
+    }
+}
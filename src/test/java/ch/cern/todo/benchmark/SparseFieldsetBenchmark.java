@@ -0,0 +1,84 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.dto.TaskField;
+import ch.cern.todo.service.TaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares wide (full TaskDTO) and narrow (fields=id,name,deadline) task
+ * searches on the synthetic dataset: query plus serialization time and JSON
+ * size per search. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-sparse-benchmark;DB_CLOSE_DELAY=-1",
+        "todo.search.coalesce.ttl-ms=0" })
+class SparseFieldsetBenchmark {
+
+    private static final int SEARCHES = 2_000;
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareWideAndNarrowSearches() throws SQLException, JsonProcessingException {
+        try (Connection connection = dataSource.getConnection()) {
+            SyntheticDataset.populate(connection);
+        }
+        Set<TaskField> narrow = EnumSet.of(TaskField.ID, TaskField.NAME, TaskField.DEADLINE);
+
+        run(Set.of(), SEARCHES / 5); // warm-up
+        run(narrow, SEARCHES / 5);
+        System.out.printf("%-28s %12s %14s%n", "fields", "us/search", "bytes/search");
+        for (Set<TaskField> fields : List.of(Set.<TaskField>of(), narrow)) {
+            long start = System.nanoTime();
+            long bytes = run(fields, SEARCHES);
+            System.out.printf("%-28s %12d %14d%n", fields.isEmpty() ? "(all)" : fields,
+                    (System.nanoTime() - start) / 1_000 / SEARCHES, bytes / SEARCHES);
+        }
+    }
+
+    private long run(Set<TaskField> fields, int searches) throws JsonProcessingException {
+        ObjectWriter writer = writer(fields);
+        long bytes = 0;
+        for (int i = 0; i < searches; i++) {
+            long userId = 1 + (i % SyntheticDataset.USERS);
+            List<TaskDTO> tasks = taskService.searchTasks(null, null, null, null, userId, false, fields);
+            bytes += writer.writeValueAsBytes(tasks).length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Same filter as TaskFieldsResponseAdvice installs for the fields parameter.
+     */
+    private ObjectWriter writer(Set<TaskField> fields) {
+        if (fields.isEmpty()) {
+            return objectMapper.writer();
+        }
+        Set<String> properties = fields.stream().map(TaskField::getProperty).collect(Collectors.toSet());
+        return objectMapper.writer(new SimpleFilterProvider().addFilter(TaskField.FILTER_ID,
+                SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
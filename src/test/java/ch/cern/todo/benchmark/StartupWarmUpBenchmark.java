@@ -0,0 +1,56 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.TodoApplication;
+import ch.cern.todo.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Measures the latency of the first searches of distinct filter shapes after
+ * startup, with and without the startup warm-up (StartupWarmUp), and the
+ * time-to-ready of both. A first, unreported run warms up the JVM itself
+ * (class loading, JIT), which would otherwise dominate whichever mode runs
+ * first. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+class StartupWarmUpBenchmark {
+
+    @Test
+    void compareFirstSearchesWithAndWithoutWarmUp() throws Exception {
+        run(false, 0); // JVM warm-up
+        System.out.printf("%-8s %12s %22s%n", "warm-up", "ready [ms]", "first searches [ms]");
+        run(true, 1);
+        run(false, 2);
+    }
+
+    private void run(boolean warmUp, int round) throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:todo-warm-up-" + round + ";DB_CLOSE_DELAY=-1",
+                        "--todo.archive.enabled=false", "--todo.warm-up.enabled=" + warmUp)) {
+            long ready = System.nanoTime() - start;
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                SyntheticDataset.populate(connection);
+            }
+            TaskService taskService = context.getBean(TaskService.class);
+            long searchStart = System.nanoTime();
+            taskService.searchTasks("deploy", null, null, null, null);
+            taskService.searchTasks(null, "sprint 7", null, 3L, null);
+            taskService.searchTasks(null, null, "2021-03-04", null, 5L);
+            taskService.searchTasks("#4711", null, null, 2L, 12L, true);
+            taskService.countTasks(null, null, null, 4L, null, false);
+            taskService.existsTasks("review", null, "2022-01-01", null, null, true);
+            if (round > 0) {
+                System.out.printf("%-8s %12d %22d%n", warmUp, ready / 1_000_000,
+                        (System.nanoTime() - searchStart) / 1_000_000);
+            }
+        }
+    }
+}
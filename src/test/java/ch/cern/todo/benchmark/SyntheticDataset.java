@@ -0,0 +1,126 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.model.SearchText;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Generates a reproducible synthetic dataset for the benchmarks. The size is
+ * controlled by the benchmark.tasks system property (default 50,000 tasks).
+ */
+final class SyntheticDataset {
+
+    static final int CATEGORIES = 20;
+    static final int USERS = 200;
+    static final int TASKS = Integer.getInteger("benchmark.tasks", 50_000);
+
+    /**
+     * Inserts one task; bind with bindTask.
+     */
+    static final String INSERT_TASK = "INSERT INTO TASKS (TASK_NAME, TASK_DESCRIPTION, NAME_NORMALIZED, "
+            + "DESCRIPTION_NORMALIZED, DEADLINE, CATEGORY_ID, USER_ID) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] WORDS = { "test", "deploy", "review", "meeting", "report", "cleanup", "backup",
+            "migrate", "upgrade", "monitor", "audit", "release", "design", "budget", "training", "support" };
+
+    private SyntheticDataset() {
+    }
+
+    /**
+     * Creates the application tables (same layout as the JPA entities) in a raw
+     * JDBC connection.
+     */
+    static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS TASK_CATEGORIES (CATEGORY_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "NAME VARCHAR(255) NOT NULL UNIQUE, DESCRIPTION VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS USERS (USER_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "USER_NAME VARCHAR(255) NOT NULL UNIQUE, PASSWORD VARCHAR(255) NOT NULL, "
+                    + "EMAIL VARCHAR(255) NOT NULL UNIQUE, ROLE_TYPE VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS TASKS (TASK_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "TASK_NAME VARCHAR(100) NOT NULL UNIQUE, TASK_DESCRIPTION VARCHAR(255) NOT NULL, "
+                    + "NAME_NORMALIZED VARCHAR(100) NOT NULL, DESCRIPTION_NORMALIZED VARCHAR(255) NOT NULL, "
+                    + "DEADLINE TIMESTAMP(6) NOT NULL, CATEGORY_ID BIGINT NOT NULL REFERENCES TASK_CATEGORIES, "
+                    + "USER_ID BIGINT NOT NULL REFERENCES USERS)");
+        }
+    }
+
+    /**
+     * Inserts the categories, users and tasks using batched statements.
+     */
+    static void populate(Connection connection) throws SQLException {
+        populate(connection, TASKS);
+    }
+
+    /**
+     * Inserts the categories, users and the given number of tasks using batched
+     * statements.
+     */
+    static void populate(Connection connection, int tasks) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement category = connection.prepareStatement(
+                "INSERT INTO TASK_CATEGORIES (NAME, DESCRIPTION) VALUES (?, ?)");
+                PreparedStatement user = connection.prepareStatement(
+                        "INSERT INTO USERS (USER_NAME, PASSWORD, EMAIL, ROLE_TYPE) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= CATEGORIES; i++) {
+                category.setString(1, "category-" + i);
+                category.setString(2, "Synthetic category " + i);
+                category.addBatch();
+            }
+            category.executeBatch();
+            for (int i = 1; i <= USERS; i++) {
+                user.setString(1, "user-" + i);
+                user.setString(2, "{noop}secret");
+                user.setString(3, "user-" + i + "@example.org");
+                user.setString(4, i == 1 ? "ADMIN" : "USER");
+                user.addBatch();
+            }
+            user.executeBatch();
+        }
+        try (PreparedStatement task = connection.prepareStatement(
+                INSERT_TASK)) {
+            for (int i = 1; i <= tasks; i++) {
+                bindTask(task, i);
+                task.addBatch();
+                if (i % 1000 == 0) {
+                    task.executeBatch();
+                }
+            }
+            task.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(autoCommit);
+    }
+
+    /**
+     * Binds the i-th synthetic task to an INSERT_TASK statement.
+     */
+    static void bindTask(PreparedStatement statement, int i) throws SQLException {
+        Random random = new Random(i);
+        String name = taskName(i);
+        String description = "Please " + WORDS[random.nextInt(WORDS.length)] + " the "
+                + WORDS[random.nextInt(WORDS.length)] + " items for sprint " + (i % 52);
+        statement.setString(1, name);
+        statement.setString(2, description);
+        statement.setString(3, SearchText.normalize(name));
+        statement.setString(4, SearchText.normalize(description));
+        statement.setTimestamp(5, Timestamp.valueOf(deadline(i)));
+        statement.setLong(6, 1 + (i % CATEGORIES));
+        statement.setLong(7, 1 + (i % USERS));
+    }
+
+    static String taskName(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " #" + i;
+    }
+
+    static LocalDateTime deadline(int i) {
+        return LocalDateTime.of(2020, 1, 1, 9, 0).plusHours(i % (24 * 365 * 8));
+    }
+}
@@ -0,0 +1,62 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.dto.TaskBulkUpdateDTO;
+import ch.cern.todo.service.TaskBulkProcessor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures a bulk re-categorization of every task of the synthetic dataset
+ * with 1, 2, 4, ... worker threads up to the number of processors, to show how
+ * the fork-join bulk updates scale with the cores (up to the cap set by the
+ * connection pool). All tasks are first put in category 1, and each run moves
+ * them from one category to the next. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-bulk-benchmark;DB_CLOSE_DELAY=-1",
+        "todo.archive.enabled=false" })
+class TaskBulkUpdateBenchmark {
+
+    @Autowired
+    private TaskBulkProcessor bulkProcessor;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void scaleBulkUpdatesWithThreads() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SyntheticDataset.populate(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE TASKS SET CATEGORY_ID = 1");
+            }
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        run(processors, 1); // warm-up
+
+        System.out.printf("%d processors%n%-8s %10s %14s%n", processors, "threads", "ms", "tasks/s");
+        long category = 2;
+        for (int threads = 1; threads <= Math.max(2, processors); threads *= 2) {
+            TaskBulkProcessor.Result result = run(threads, category++);
+            assertThat(result.getUpdated()).isEqualTo(SyntheticDataset.TASKS);
+            System.out.printf("%-8d %10d %14d%n", threads, result.getElapsedMillis(),
+                    result.getUpdated() * 1000 / Math.max(1, result.getElapsedMillis()));
+        }
+    }
+
+    private TaskBulkProcessor.Result run(int threads, long fromCategoryId) {
+        TaskBulkUpdateDTO update = new TaskBulkUpdateDTO();
+        update.setCategoryId(fromCategoryId);
+        update.setNewCategoryId(fromCategoryId + 1);
+        return bulkProcessor.update(update, threads);
+    }
+}
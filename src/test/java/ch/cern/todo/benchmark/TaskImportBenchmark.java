@@ -0,0 +1,101 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import ch.cern.todo.service.TaskImporter;
+import ch.cern.todo.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares importing tasks one by one through TaskService.createTask (what
+ * posting them to the API does) with the streaming TaskImporter reading a
+ * CSV file of benchmark.tasks rows, which is generated on the fly and never
+ * held in memory. Run with ./gradlew benchmark -Dbenchmark.tasks=1000000 for
+ * the million-row figures.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-import-benchmark;DB_CLOSE_DELAY=-1",
+        "todo.archive.enabled=false" })
+class TaskImportBenchmark {
+
+    private static final int SINGLE_ROWS = 5_000;
+
+    @Autowired
+    private TaskImporter taskImporter;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareSingleInsertsAndStreamingImport() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO TASK_CATEGORIES (NAME, DESCRIPTION) VALUES ('imported', 'Imported')");
+            statement.execute("INSERT INTO USERS (USER_NAME, PASSWORD, EMAIL, ROLE_TYPE) "
+                    + "VALUES ('importer', '{noop}secret', 'importer@example.org', 'USER')");
+        }
+        TaskCategory category = new TaskCategory();
+        category.setId(1L);
+        User user = new User();
+        user.setId(1L);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            taskService.createTask(new Task("single " + i, "Created one by one", SyntheticDataset.deadline(i),
+                    category, user));
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        TaskImporter.Report report = taskImporter.importTasks(new GeneratedCsv(SyntheticDataset.TASKS),
+                TaskImporter.Format.CSV);
+        assertThat(report.getImported()).isEqualTo(SyntheticDataset.TASKS);
+
+        System.out.printf("%-14s %10s %14s%n", "path", "rows", "rows/s");
+        System.out.printf("%-14s %10d %14d%n", "createTask", SINGLE_ROWS,
+                SINGLE_ROWS * 1_000_000_000L / singleNanos);
+        System.out.printf("%-14s %10d %14d%n", "import", report.getImported(),
+                report.getImported() * 1000 / Math.max(1, report.getElapsedMillis()));
+    }
+
+    /**
+     * A CSV file of synthetic tasks produced line by line while it is read.
+     */
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int row;
+        private byte[] line = "name,description,deadline,category,user\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (row == rows) {
+                    return -1;
+                }
+                row++;
+                line = (SyntheticDataset.taskName(row) + ",Imported task " + row + ","
+                        + SyntheticDataset.deadline(row) + ",imported,importer\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++] & 0xff;
+        }
+    }
+}
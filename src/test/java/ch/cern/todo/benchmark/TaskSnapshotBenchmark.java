@@ -0,0 +1,115 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.model.Task;
+import ch.cern.todo.repository.TaskRepository;
+import ch.cern.todo.search.TaskSnapshot;
+import ch.cern.todo.service.TaskSearchCriteria;
+import ch.cern.todo.service.TaskSearchPlans;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares search counts answered by the database (precompiled statements)
+ * with the same counts evaluated on the in-memory task snapshot, per filter
+ * shape, and the heap used per task by the snapshot with that of the loaded
+ * entity graph. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-snapshot-benchmark;DB_CLOSE_DELAY=-1",
+        "todo.snapshot.enabled=true",
+        "todo.archive.enabled=false" })
+class TaskSnapshotBenchmark {
+
+    private static final int SEARCHES = 200;
+
+    @Autowired
+    private TaskSnapshot snapshot;
+    @Autowired
+    private TaskSearchPlans searchPlans;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareDatabaseAndSnapshotCounts() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SyntheticDataset.populate(connection);
+        }
+        long start = System.nanoTime();
+        snapshot.rebuild();
+        System.out.printf("loaded %d tasks in %d ms%n", snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+
+        Map<String, IntFunction<TaskSearchCriteria>> shapes = Map.of(
+                "user", i -> TaskSearchCriteria.of(null, null, null, null, 1L + i % SyntheticDataset.USERS),
+                "category+day", i -> TaskSearchCriteria.of(null, null,
+                        SyntheticDataset.deadline(i * 31).toLocalDate().toString(), 1L + i % SyntheticDataset.CATEGORIES,
+                        null),
+                "description", i -> TaskSearchCriteria.of(null, "review the backup", null, null, null),
+                "name+user", i -> TaskSearchCriteria.of("#1" + i % 10, null, null, null,
+                        1L + i % SyntheticDataset.USERS));
+        System.out.printf("%-14s %12s %12s%n", "shape", "db us", "snapshot us");
+        for (Map.Entry<String, IntFunction<TaskSearchCriteria>> shape : shapes.entrySet()) {
+            IntFunction<TaskSearchCriteria> criteria = shape.getValue();
+            for (int i = 0; i < SEARCHES / 4; i++) { // warm-up
+                assertThat(snapshot.count(criteria.apply(i))).isEqualTo(databaseCount(criteria.apply(i)));
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                databaseCount(criteria.apply(i));
+            }
+            long database = (System.nanoTime() - start) / 1_000 / SEARCHES;
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                snapshot.count(criteria.apply(i));
+            }
+            long memory = (System.nanoTime() - start) / 1_000 / SEARCHES;
+            System.out.printf("%-14s %12d %12d%n", shape.getKey(), database, memory);
+        }
+
+        System.out.printf("snapshot:     %6d bytes/task (estimated)%n", snapshot.estimateBytes() / snapshot.size());
+        System.out.printf("entity graph: %6d bytes/task (measured)%n", entityGraphBytes() / snapshot.size());
+    }
+
+    private long databaseCount(TaskSearchCriteria criteria) {
+        return transactionTemplate.execute(status -> searchPlans.countTasks(criteria));
+    }
+
+    /**
+     * Heap retained by all tasks loaded as entities with their categories and
+     * users, measured as the used heap difference around a full GC.
+     */
+    private long entityGraphBytes() {
+        return transactionTemplate.execute(status -> {
+            long before = usedHeap();
+            List<Task> tasks = taskRepository.findAll();
+            tasks.forEach(task -> task.getCategory().getName());
+            long after = usedHeap();
+            assertThat(tasks).hasSize(snapshot.size());
+            return after - before;
+        });
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
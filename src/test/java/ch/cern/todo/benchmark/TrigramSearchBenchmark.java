@@ -0,0 +1,113 @@
+package ch.cern.todo.benchmark;
+
+import ch.cern.todo.search.TaskTextIndex;
+import ch.cern.todo.service.TaskSearchCriteria;
+import ch.cern.todo.service.TaskSearchPlans;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares selective substring searches on task names (name=#12345) answered
+ * by a LIKE '%term%' scan of the TASKS table with the same searches narrowed
+ * by the trigram index (TaskTextIndex) and fetched by primary key, and reports
+ * the index lookup time alone. Run with ./gradlew benchmark
+ * -Dbenchmark.tasks=1000000 for the million-task figures.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:todo-trigram-benchmark;DB_CLOSE_DELAY=-1",
+        "todo.search.coalesce.ttl-ms=0",
+        "todo.search.trigram.max-tasks=10000000",
+        "todo.archive.enabled=false" })
+class TrigramSearchBenchmark {
+
+    private static final int SEARCHES = 2_000;
+
+    @Autowired
+    private TaskTextIndex textIndex;
+    @Autowired
+    private TaskSearchPlans searchPlans;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareScanAndIndexedSearches() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SyntheticDataset.populate(connection);
+        }
+        long start = System.nanoTime();
+        textIndex.rebuild();
+        System.out.printf("indexed %d tasks (%d KB) in %d ms%n", textIndex.size(), textIndex.estimateBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+        assertThat(textIndex.isReady()).isTrue();
+
+        int scans = Math.max(1, SEARCHES / 100);
+        runScan(scans); // warm-up
+        runIndexed(SEARCHES / 5);
+        runLookup(SEARCHES);
+
+        System.out.printf("%-10s %12s%n", "path", "us/search");
+        start = System.nanoTime();
+        long scanned = runScan(scans);
+        System.out.printf("%-10s %12d%n", "scan", (System.nanoTime() - start) / 1_000 / scans);
+        start = System.nanoTime();
+        long indexed = runIndexed(scans);
+        System.out.printf("%-10s %12d%n", "indexed", (System.nanoTime() - start) / 1_000 / scans);
+        start = System.nanoTime();
+        long looked = runLookup(SEARCHES);
+        System.out.printf("%-10s %12d%n", "lookup", (System.nanoTime() - start) / 1_000 / SEARCHES);
+        assertThat(indexed).isEqualTo(scanned);
+        assertThat(looked).isPositive();
+    }
+
+    private long runScan(int searches) {
+        long found = 0;
+        for (int i = 1; i <= searches; i++) {
+            TaskSearchCriteria criteria = criteria(i);
+            found += transactionTemplate.execute(status -> searchPlans.findTasks(criteria)).size();
+        }
+        return found;
+    }
+
+    private long runIndexed(int searches) {
+        long found = 0;
+        for (int i = 1; i <= searches; i++) {
+            TaskSearchCriteria criteria = criteria(i);
+            List<Long> ids = textIndex.match(criteria.getName(), null);
+            found += ids.isEmpty() ? 0
+                    : transactionTemplate.execute(status -> searchPlans.findTasks(criteria, ids)).size();
+        }
+        return found;
+    }
+
+    private long runLookup(int searches) {
+        long found = 0;
+        for (int i = 1; i <= searches; i++) {
+            found += textIndex.match(criteria(i).getName(), null).size();
+        }
+        return found;
+    }
+
+    /**
+     * A name search for one task number of the upper decade of the dataset,
+     * which only matches a few tasks (e.g. #123456, or #12345 and #123450 to
+     * #123459 when the number has one digit less than the dataset size).
+     */
+    private static TaskSearchCriteria criteria(int i) {
+        int lowest = SyntheticDataset.TASKS / 10;
+        long n = lowest + (i * 7919L) % (SyntheticDataset.TASKS - lowest);
+        return TaskSearchCriteria.of("#" + n, null, null, null, null);
+    }
+}
@@ -0,0 +1,30 @@
+package ch.cern.todo.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the search text normalization.
+ */
+class SearchTextTests {
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(SearchText.normalize("Café CRÈME")).isEqualTo("cafe creme");
+        assertThat(SearchText.normalize("Ångström")).isEqualTo("angstrom");
+        assertThat(SearchText.normalize("İstanbul")).isEqualTo("istanbul");
+        // already decomposed input folds the same way
+        assertThat(SearchText.normalize("Cafe\u0301")).isEqualTo("cafe");
+        assertThat(SearchText.normalize(null)).isNull();
+    }
+
+    @Test
+    void keepsComposedCharactersWhole() {
+        assertThat(SearchText.normalize("한국어")).isEqualTo("한국어").hasSize(3);
+        assertThat(SearchText.normalize("한")).doesNotContain(SearchText.normalize("하"));
+        // a name of the maximum length still fits the NAME_NORMALIZED column
+        assertThat(SearchText.normalize("가".repeat(100))).hasSize(100);
+        assertThat(SearchText.normalize("東京タワー")).isEqualTo("東京タワー");
+    }
+}
@@ -0,0 +1,78 @@
+package ch.cern.todo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the token bucket and the adaptive concurrency limit.
+ */
+class LimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void bucketAllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertThat(bucket.tryConsume(5, 0)).isZero();
+        assertThat(bucket.tryConsume(5, 0)).isZero();
+        long wait = bucket.tryConsume(1, 0);
+        assertThat(wait).isEqualTo(SECOND / 5);
+
+        // after one second five tokens are back, but not six
+        assertThat(bucket.tryConsume(5, SECOND)).isZero();
+        assertThat(bucket.tryConsume(1, SECOND)).isPositive();
+        assertThat(bucket.isFull(SECOND)).isFalse();
+        assertThat(bucket.isFull(3 * SECOND)).isTrue();
+    }
+
+    @Test
+    void refundedTokensCanBeTakenAgain() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertThat(bucket.tryConsume(10, 0)).isZero();
+        assertThat(bucket.tryConsume(4, 0)).isPositive();
+        bucket.refund(4);
+        assertThat(bucket.tryConsume(4, 0)).isZero();
+    }
+
+    @Test
+    void mixOfCheapAndExpensiveEndpointsKeepsTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 100);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release("get", 1_000_000);
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release("search", 40_000_000);
+        }
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void concurrencyLimitShrinksWhenLatencyRisesAndRecovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 2.0, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release("get", 1_000_000);
+        }
+        int healthy = limiter.getLimit();
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.release("get", 50_000_000);
+        }
+        assertThat(limiter.getLimit()).isLessThan(healthy);
+
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(limit);
+    }
+}
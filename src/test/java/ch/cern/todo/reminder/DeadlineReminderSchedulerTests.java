@@ -0,0 +1,132 @@
+package ch.cern.todo.reminder;
+
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import ch.cern.todo.repository.TaskCategoryRepository;
+import ch.cern.todo.repository.UserRepository;
+import ch.cern.todo.service.TaskService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reminder scheduler against a local stub webhook receiver that fails
+ * the first delivery, to cover the write hooks, the window loading and the
+ * retries. Excluded from AOT processing, which would start the receiver in the
+ * build.
+ */
+@DisabledInAotMode
+@SpringBootTest(properties = {
+        "todo.reminder.sink=webhook",
+        "todo.reminder.lead=PT1H",
+        "todo.reminder.window=PT1H",
+        "todo.reminder.max-attempts=3",
+        "todo.reminder.retry-backoff=PT0.05S" })
+class DeadlineReminderSchedulerTests {
+
+    private static final List<String> received = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger requests = new AtomicInteger();
+    private static HttpServer receiver;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeadlineReminderScheduler reminderScheduler;
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("todo.reminder.webhook.url",
+                () -> "http://localhost:" + startReceiver().getAddress().getPort() + "/reminders");
+    }
+
+    @AfterAll
+    static synchronized void stopReceiver() {
+        if (receiver != null) {
+            receiver.stop(0);
+            receiver = null;
+        }
+    }
+
+    @Test
+    void remindsThroughWebhookWithRetriesAndFollowsWrites() throws InterruptedException {
+        TaskCategory category = taskCategoryRepository.save(new TaskCategory("reminders", "Reminder tests"));
+        User user = userRepository.save(new User("reminder-user", "secret", "reminder@example.org", RoleType.USER));
+        int scheduledBefore = reminderScheduler.getScheduledCount();
+
+        // due within the lead time: the reminder fires right away
+        taskService.createTask(new Task("reminder soon", "Due soon", LocalDateTime.now().plusMinutes(10), category,
+                user));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(requests).hasValueGreaterThanOrEqualTo(2);
+        assertThat(received).singleElement().asString().contains("\"taskName\":\"reminder soon\"");
+
+        // inside the loaded window but not yet due: scheduled, then cancelled on delete
+        Task later = taskService.createTask(new Task("reminder later", "Due later",
+                LocalDateTime.now().plusMinutes(90), category, user));
+        assertThat(reminderScheduler.getScheduledCount()).isEqualTo(scheduledBefore + 1);
+        taskService.deleteTask(later.getId());
+        assertThat(reminderScheduler.getScheduledCount()).isEqualTo(scheduledBefore);
+
+        // beyond the loaded window: left to a later window load
+        taskService.createTask(new Task("reminder next week", "Due next week", LocalDateTime.now().plusDays(7),
+                category, user));
+        assertThat(reminderScheduler.getScheduledCount()).isEqualTo(scheduledBefore);
+    }
+
+    private static synchronized HttpServer startReceiver() {
+        if (receiver != null) {
+            return receiver;
+        }
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/reminders", exchange -> {
+                try (InputStream body = exchange.getRequestBody()) {
+                    String payload = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                    // fail the first delivery to exercise the retries
+                    if (requests.incrementAndGet() == 1) {
+                        exchange.sendResponseHeaders(500, -1);
+                    } else {
+                        received.add(payload);
+                        exchange.sendResponseHeaders(204, -1);
+                    }
+                } finally {
+                    exchange.close();
+                }
+            });
+            server.start();
+            receiver = server;
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ch.cern.todo.repository;
+
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repositories against the schema built by the Flyway migrations with
+ * the postgres profile. By default the database is H2 in PostgreSQL mode; point
+ * the suite at a real (or embedded) PostgreSQL server with
+ * -Dtodo.it.datasource.url=jdbc:postgresql://... plus .username/.password.
+ */
+@DataJpaTest
+@ActiveProfiles("postgres")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostgresProfileRepositoryTests {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("todo.it.datasource.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("todo.it.datasource.username"));
+            registry.add("spring.datasource.password", () -> System.getProperty("todo.it.datasource.password"));
+            return;
+        }
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:mem:postgres-it;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("spring.datasource.driverClassName", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TaskCategory work;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        work = taskCategoryRepository.save(new TaskCategory("work", "Work related"));
+        alice = userRepository.save(new User("alice", "secret", "alice@example.org", RoleType.USER));
+        taskRepository.save(new Task("Write test plan", "Plan the tests", LocalDateTime.of(2030, 1, 1, 9, 0),
+                work, alice));
+        taskRepository.save(new Task("Deploy release", "Ship it", LocalDateTime.of(2030, 1, 2, 9, 0), work, alice));
+    }
+
+    @Test
+    void findsCategoryByName() {
+        assertThat(taskCategoryRepository.findByName("work")).contains(work);
+    }
+
+    @Test
+    void findsTasksByNameIgnoringCase() {
+        assertThat(taskRepository.findByNameContainingIgnoreCase("TEST"))
+                .extracting(Task::getName).containsExactly("Write test plan");
+    }
+
+    @Test
+    void findsTasksByNameIgnoringAccents() {
+        taskRepository.save(new Task("Réunion café", "Café au lait", LocalDateTime.of(2030, 1, 3, 9, 0), work,
+                alice));
+        assertThat(taskRepository.findByNameContainingIgnoreCase("CAFE"))
+                .extracting(Task::getName).containsExactly("Réunion café");
+    }
+
+    @Test
+    void findsTasksByCategoryAndDeadline() {
+        assertThat(taskRepository.findByCategory_Id(work.getId())).hasSize(2);
+        assertThat(taskRepository.findByDeadlineBetween(LocalDateTime.of(2030, 1, 2, 0, 0),
+                LocalDateTime.of(2030, 1, 2, 23, 59))).extracting(Task::getName).containsExactly("Deploy release");
+    }
+
+    @Test
+    void searchesWithSpecification() {
+        Specification<Task> spec = (root, query, cb) -> cb.and(
+                cb.like(cb.lower(root.get("description")), "%ship%"),
+                cb.equal(root.get("user").get("id"), alice.getId()));
+        List<Task> tasks = taskRepository.findAll(spec);
+        assertThat(tasks).extracting(Task::getName).containsExactly("Deploy release");
+    }
+
+    @Test
+    void storesRoleTypeAsString() {
+        assertThat(userRepository.findById(alice.getId())).get()
+                .extracting(User::getRoleType).isEqualTo(RoleType.USER);
+    }
+}
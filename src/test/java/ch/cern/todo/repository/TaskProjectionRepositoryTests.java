@@ -0,0 +1,97 @@
+package ch.cern.todo.repository;
+
+import ch.cern.todo.dto.TaskDTO;
+import ch.cern.todo.dto.TaskField;
+import ch.cern.todo.model.RoleType;
+import ch.cern.todo.model.Task;
+import ch.cern.todo.model.TaskCategory;
+import ch.cern.todo.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the SQL of the sparse fieldset queries: the category and user tables
+ * are only joined when their names are selected.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ch.cern.todo.repository.TaskProjectionRepositoryTests$RecordingInspector")
+@Import(TaskProjectionRepository.class)
+class TaskProjectionRepositoryTests {
+
+    @Autowired
+    private TaskProjectionRepository projectionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryRepository taskCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TaskCategory work;
+
+    @BeforeEach
+    void setUp() {
+        work = taskCategoryRepository.save(new TaskCategory("projection", "Projection tests"));
+        User bob = userRepository.save(new User("projection-bob", "secret", "bob@example.org", RoleType.USER));
+        taskRepository.save(new Task("Write projection", "Select fewer columns", LocalDateTime.of(2030, 1, 1, 9, 0),
+                work, bob));
+        RecordingInspector.statements.clear();
+    }
+
+    @Test
+    void selectsIdAndNameWithoutJoins() {
+        Specification<Task> byCategory = (root, query, cb) -> cb.equal(root.get("category").get("id"), work.getId());
+
+        List<TaskDTO> tasks = projectionRepository.findTasks(byCategory, EnumSet.of(TaskField.ID, TaskField.NAME));
+
+        assertThat(tasks).extracting(TaskDTO::getName).containsExactly("Write projection");
+        assertThat(tasks).extracting(TaskDTO::getCategoryName).containsOnlyNulls();
+        assertThat(selects()).singleElement().satisfies(sql -> assertThat(sql)
+                .doesNotContain("join").doesNotContain("task_categories").doesNotContain("users"));
+    }
+
+    @Test
+    void joinsOnlyTheSelectedNames() {
+        List<TaskDTO> tasks = projectionRepository.findTasks(null,
+                EnumSet.of(TaskField.ID, TaskField.CATEGORY_NAME));
+
+        assertThat(tasks).extracting(TaskDTO::getCategoryName).containsExactly("projection");
+        assertThat(selects()).singleElement().satisfies(sql -> assertThat(sql)
+                .contains("join task_categories").doesNotContain("users"));
+    }
+
+    private static List<String> selects() {
+        return RecordingInspector.statements.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.startsWith("select"))
+                .toList();
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ch.cern.todo.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the refreshes and rebuilds of CommittedTaskIndex, over an
+ * in-memory table of task texts.
+ */
+class CommittedTaskIndexTests {
+
+    private final Index index = new Index();
+
+    @AfterEach
+    void stop() {
+        index.stop();
+    }
+
+    @Test
+    void outOfOrderCommitHooksLeaveTheCommittedState() throws InterruptedException {
+        index.database.put(1L, "first");
+        startAndAwaitReady();
+
+        // the hook of the first write reads its row, then stalls before applying it
+        index.database.put(1L, "second");
+        index.stallNextLoad = true;
+        Thread first = new Thread(() -> index.onTaskSaved(1L));
+        first.start();
+        await(index.loaded);
+
+        // the second write commits, and its hook runs while the first one stalls
+        index.database.put(1L, "third");
+        Thread second = new Thread(() -> index.onTaskSaved(1L));
+        second.start();
+        waitUntil(() -> second.getState() == Thread.State.WAITING);
+        index.release.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertThat(index.contents()).containsExactly(Map.entry(1L, "third"));
+    }
+
+    @Test
+    void writesDuringTheBuildAreReplayed() {
+        index.database.put(1L, "deleted");
+        index.database.put(2L, "changed before");
+        index.stallNextStream = true;
+        index.start();
+        await(index.streaming);
+
+        index.database.remove(1L);
+        index.onTaskDeleted(1L);
+        index.database.put(2L, "changed after");
+        index.database.put(3L, "created");
+        index.onTasksSaved(List.of(2L, 3L));
+        assertThat(index.isReady()).isFalse();
+        index.release.countDown();
+        waitUntil(index::isReady);
+
+        assertThat(index.contents()).isEqualTo(Map.of(2L, "changed after", 3L, "created"));
+    }
+
+    @Test
+    void failingRefreshRebuilds() {
+        index.database.put(1L, "built");
+        startAndAwaitReady();
+        assertThat(index.builds).hasValue(1);
+
+        index.failNextLoad = true;
+        index.database.put(2L, "missed");
+        index.onTaskSaved(2L);
+        waitUntil(() -> index.builds.get() == 2 && index.contents().size() == 2);
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.contents()).isEqualTo(Map.of(1L, "built", 2L, "missed"));
+    }
+
+    private void startAndAwaitReady() {
+        index.start();
+        waitUntil(index::isReady);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("waited 5 s").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An index of the task texts, whose loads can be stalled or failed once.
+     */
+    private static final class Index extends CommittedTaskIndex<Map<Long, String>, Map.Entry<Long, String>> {
+        private final Map<Long, String> database = new ConcurrentHashMap<>();
+        private final AtomicInteger builds = new AtomicInteger();
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private final CountDownLatch streaming = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean stallNextLoad;
+        private volatile boolean stallNextStream;
+        private volatile boolean failNextLoad;
+
+        private Index() {
+            super(new NoTransactionManager(), true, "test index");
+        }
+
+        private Map<Long, String> contents() {
+            return read(HashMap::new);
+        }
+
+        @Override
+        protected Map<Long, String> empty() {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected Stream<Map.Entry<Long, String>> streamAll() {
+            builds.incrementAndGet();
+            List<Map.Entry<Long, String>> rows = rows(database.keySet());
+            if (stallNextStream) {
+                stallNextStream = false;
+                streaming.countDown();
+                CommittedTaskIndexTests.await(release);
+            }
+            return rows.stream();
+        }
+
+        @Override
+        protected List<Map.Entry<Long, String>> findAll(List<Long> ids) {
+            if (failNextLoad) {
+                failNextLoad = false;
+                throw new IllegalStateException("database unavailable");
+            }
+            List<Map.Entry<Long, String>> rows = rows(ids);
+            if (stallNextLoad) {
+                stallNextLoad = false;
+                loaded.countDown();
+                CommittedTaskIndexTests.await(release);
+            }
+            return rows;
+        }
+
+        private List<Map.Entry<Long, String>> rows(Iterable<Long> ids) {
+            List<Map.Entry<Long, String>> rows = new ArrayList<>();
+            for (Long id : ids) {
+                String text = database.get(id);
+                if (text != null) {
+                    rows.add(Map.entry(id, text));
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        protected long id(Map.Entry<Long, String> row) {
+            return row.getKey();
+        }
+
+        @Override
+        protected boolean put(Map<Long, String> texts, Map.Entry<Long, String> row) {
+            texts.put(row.getKey(), row.getValue());
+            return true;
+        }
+
+        @Override
+        protected void remove(Map<Long, String> texts, long id) {
+            texts.remove(id);
+        }
+
+        @Override
+        protected void logBuilt(Map<Long, String> texts, long millis) {
+        }
+    }
+
+    /**
+     * A transaction manager without a resource, for the reads of the index.
+     */
+    private static final class NoTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ch.cern.todo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the column-wise task snapshot.
+ */
+class SnapshotColumnsTests {
+
+    @Test
+    void filtersCombineAllColumns() {
+        SnapshotColumns columns = new SnapshotColumns();
+        columns.put(1, "deploy release", "friday", 100, 1, 10);
+        columns.put(2, "review release", "monday", 200, 1, 20);
+        columns.put(3, "cleanup", "friday", 200, 2, 10);
+
+        assertThat(columns.count(columns.filter(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null, null))).isEqualTo(3);
+        assertThat(columns.count(columns.filter("release", null, Long.MIN_VALUE, Long.MAX_VALUE, 1L, null)))
+                .isEqualTo(2);
+        assertThat(ids(columns, columns.filter(null, "friday", 150, 250, null, 10L))).containsExactly(3);
+        assertThat(columns.count(columns.filter(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null, 1L << 40)))
+                .isZero();
+    }
+
+    @Test
+    void updatesAndDeletionsKeepColumnsDense() {
+        SnapshotColumns columns = new SnapshotColumns();
+        for (int id = 1; id <= 5; id++) {
+            columns.put(id, "task " + id, "shared", id, 1, 1);
+        }
+        columns.remove(2);
+        columns.put(4, "renamed", "shared", 4, 1, 1);
+        columns.remove(42);
+
+        assertThat(columns.size()).isEqualTo(4);
+        assertThat(ids(columns, columns.filter("task", null, Long.MIN_VALUE, Long.MAX_VALUE, null, null)))
+                .containsExactly(1, 3, 5);
+        assertThat(ids(columns, columns.filter("renamed", "shared", Long.MIN_VALUE, Long.MAX_VALUE, null, null)))
+                .containsExactly(4);
+        assertThat(columns.find(columns.filter(null, "shared", Long.MIN_VALUE, Long.MAX_VALUE, null, null), 3))
+                .isNull();
+    }
+
+    private static long[] ids(SnapshotColumns columns, SnapshotColumns.Filter filter) {
+        long[] ids = columns.find(filter, Integer.MAX_VALUE);
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,127 @@
+package ch.cern.todo.search;
+
+import ch.cern.todo.repository.TaskSearchText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the trigram index, its posting lists and its size limit.
+ */
+class TrigramIndexTests {
+
+    @Test
+    void postingListsStaySortedAndDistinct() {
+        PostingList list = new PostingList();
+        for (int id : new int[] { 5, 1, 9, 5, 3, 9, 7 }) {
+            list.add(id);
+        }
+        list.remove(3);
+        list.remove(4);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            ids.add(list.get(i));
+        }
+        assertThat(ids).containsExactly(1, 5, 7, 9);
+        assertThat(list.contains(7)).isTrue();
+        assertThat(list.contains(3)).isFalse();
+    }
+
+    @Test
+    void candidatesFollowUpdatesAndRemovals() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "deploy release");
+        index.put(2, "review the release");
+        index.put(3, "cleanup");
+
+        assertThat(ids(index, "release")).containsExactly(1, 2);
+        assertThat(ids(index, "xyz")).isEmpty();
+
+        index.put(2, "review notes");
+        index.remove(1);
+        assertThat(ids(index, "release")).isEmpty();
+        assertThat(ids(index, "note")).containsExactly(2);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void candidatesAreVerifiedAgainstTheText() {
+        TrigramIndex index = new TrigramIndex();
+        // contains all trigrams of "abcab" without containing it
+        index.put(1, "abc cab bca");
+        index.put(2, "xabcabx");
+
+        assertThat(ids(index, "abcab")).containsExactly(1, 2);
+        assertThat(index.contains(1, "abcab")).isFalse();
+        assertThat(index.contains(2, "abcab")).isTrue();
+    }
+
+    @Test
+    void estimateFollowsTheIndexedTexts() {
+        TrigramIndex index = new TrigramIndex();
+        long empty = index.estimateBytes();
+        index.put(1, "deploy release");
+        long one = index.estimateBytes();
+        index.put(2, "review the release");
+        long two = index.estimateBytes();
+        index.remove(2);
+
+        assertThat(one).isGreaterThan(empty);
+        assertThat(two).isGreaterThan(one);
+        assertThat(index.estimateBytes()).isLessThan(two);
+    }
+
+    @Test
+    void textIndexRejectsTasksBeyondItsLimit() {
+        TaskTextIndex index = new TaskTextIndex(null, null, true, 1000, 2, new SimpleMeterRegistry());
+        TaskTextIndex.Texts texts = new TaskTextIndex.Texts();
+
+        assertThat(index.put(texts, text(1L, "first"))).isTrue();
+        assertThat(index.put(texts, text(2L, "second"))).isTrue();
+        assertThat(index.put(texts, text(2L, "second, renamed"))).isTrue();
+        assertThat(index.put(texts, text(3L, "third"))).isFalse();
+    }
+
+    private static TaskSearchText text(Long id, String name) {
+        return new TaskSearchText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+
+    private static List<Integer> ids(TrigramIndex index, String term) {
+        PostingList[] lists = index.postings(term);
+        List<Integer> ids = new ArrayList<>();
+        if (lists.length == 0) {
+            return ids;
+        }
+        outer:
+        for (int i = 0; i < lists[0].size(); i++) {
+            int id = lists[0].get(i);
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue outer;
+                }
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+}
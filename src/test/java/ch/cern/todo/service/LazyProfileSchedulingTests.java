@@ -0,0 +1,31 @@
+package ch.cern.todo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that the scheduled jobs are registered under the lazy profile, where
+ * beans no request has used yet are not created.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:todo-lazy;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("lazy")
+class LazyProfileSchedulingTests {
+
+    @Autowired
+    private List<ScheduledTaskHolder> schedulers;
+
+    @Test
+    void schedulesTheArchiverUnderTheLazyProfile() {
+        assertThat(schedulers.stream().flatMap(scheduler -> scheduler.getScheduledTasks().stream())
+                .map(ScheduledTask::toString))
+                .contains(TaskArchiver.class.getName() + ".scheduledRun");
+    }
+}
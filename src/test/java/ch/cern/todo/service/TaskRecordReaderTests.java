@@ -0,0 +1,93 @@
+package ch.cern.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests of the streaming CSV and NDJSON readers of the task import.
+ */
+class TaskRecordReaderTests {
+
+    private static final int MAX_RECORD_LENGTH = 1000;
+
+    @Test
+    void readsQuotedCsvFieldsAcrossLines() throws IOException {
+        TaskRecordReader reader = TaskRecordReader.csv(new StringReader(
+                "Name,extra,Deadline,category,user\r\n"
+                        + "plain,x,2030-01-01T09:00:00,ops,alice\r\n"
+                        + "\n"
+                        + "\"quoted, \"\"with\"\"\nbreak\",,2030-01-02T09:00:00,ops\n"), MAX_RECORD_LENGTH);
+
+        TaskRecordReader.Record first = reader.next();
+        assertThat(first.line).isEqualTo(2);
+        assertThat(first.name()).isEqualTo("plain");
+        assertThat(first.deadline()).isEqualTo("2030-01-01T09:00:00");
+        assertThat(first.user()).isEqualTo("alice");
+        assertThat(first.description()).isNull();
+
+        TaskRecordReader.Record second = reader.next();
+        assertThat(second.line).isEqualTo(4);
+        assertThat(second.name()).isEqualTo("quoted, \"with\"\nbreak");
+        assertThat(second.category()).isEqualTo("ops");
+        assertThat(second.user()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsCsvWithoutNameColumn() {
+        assertThatThrownBy(() -> TaskRecordReader.csv(new StringReader("title,deadline\nx,y\n"), MAX_RECORD_LENGTH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reportsInvalidNdjsonLines() throws IOException {
+        TaskRecordReader reader = TaskRecordReader.ndjson(new StringReader(
+                "{\"name\":\"a\",\"deadline\":\"2030-01-01T09:00:00\",\"status\":null}\n"
+                        + "\n"
+                        + "{\"name\": broken\n"
+                        + "[1]\n"), new ObjectMapper(), MAX_RECORD_LENGTH);
+
+        TaskRecordReader.Record valid = reader.next();
+        assertThat(valid.name()).isEqualTo("a");
+        assertThat(valid.status()).isNull();
+        assertThat(valid.error).isNull();
+        TaskRecordReader.Record broken = reader.next();
+        assertThat(broken.line).isEqualTo(3);
+        assertThat(broken.error).startsWith("Invalid JSON");
+        assertThat(reader.next().error).isEqualTo("Expected a JSON object");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void skipsRecordsLongerThanTheLimit() throws IOException {
+        String unterminated = "\"" + "x".repeat(2 * MAX_RECORD_LENGTH);
+        TaskRecordReader csv = TaskRecordReader.csv(new StringReader(
+                "name\n" + unterminated + "\nnext\n" + "y".repeat(2 * MAX_RECORD_LENGTH) + "\nlast\n"),
+                MAX_RECORD_LENGTH);
+
+        TaskRecordReader.Record tooLong = csv.next();
+        assertThat(tooLong.line).isEqualTo(2);
+        assertThat(tooLong.error).startsWith("Record exceeds");
+        assertThat(csv.next().name()).isEqualTo("next");
+        assertThat(csv.next().error).startsWith("Record exceeds");
+        TaskRecordReader.Record last = csv.next();
+        assertThat(last.line).isEqualTo(5);
+        assertThat(last.name()).isEqualTo("last");
+        assertThat(csv.next()).isNull();
+
+        TaskRecordReader ndjson = TaskRecordReader.ndjson(new StringReader(
+                "{\"name\":\"" + "z".repeat(2 * MAX_RECORD_LENGTH) + "\"}\n{\"name\":\"b\"}"),
+                new ObjectMapper(), MAX_RECORD_LENGTH);
+        assertThat(ndjson.next().error).startsWith("Record exceeds");
+        TaskRecordReader.Record next = ndjson.next();
+        assertThat(next.line).isEqualTo(2);
+        assertThat(next.name()).isEqualTo("b");
+        assertThat(ndjson.next()).isNull();
+    }
+}
@@ -0,0 +1,99 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.dto.TaskDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests of the single-flight task search coalescing.
+ */
+class TaskSearchCoalescerTests {
+
+    private final TaskSearchCoalescer coalescer = new TaskSearchCoalescer(60_000, 1000, new SimpleMeterRegistry());
+
+    @Test
+    void identicalConcurrentSearchesRunOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<TaskDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // differently spelled, but equal after normalization
+                String name = i % 2 == 0 ? "Report" : "  report ";
+                results.add(pool.submit(() -> coalescer.search(TaskSearchCriteria.of(name, null, null, 1L, null),
+                        () -> {
+                            executions.incrementAndGet();
+                            await(release);
+                            return List.of(new TaskDTO());
+                        })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<List<TaskDTO>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(1);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void writesAndFailuresAreNotShared() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.of(null, "x", "2025-01-31", null, null);
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.search(criteria, () -> {
+            executions.incrementAndGet();
+            return List.of(new TaskDTO());
+        });
+        assertThat(coalescer.search(criteria, List::of)).hasSize(1);
+        assertThat(executions).hasValue(1);
+
+        coalescer.invalidate();
+        assertThat(coalescer.search(criteria, List::of)).isEmpty();
+
+        TaskSearchCriteria failing = TaskSearchCriteria.of("boom", null, null, null, null);
+        assertThatThrownBy(() -> coalescer.search(failing, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.search(failing, List::of)).isEmpty();
+    }
+
+    @Test
+    void searchesWithDifferentTimeoutsAreNotShared() {
+        TaskSearchCriteria criteria = TaskSearchCriteria.of("report", null, null, null, null);
+        coalescer.search(criteria.withTimeout(1000L), () -> List.of(new TaskDTO()));
+
+        assertThat(coalescer.search(criteria.withTimeout(1000L), List::of)).hasSize(1);
+        assertThat(coalescer.search(criteria.withTimeout(2000L), List::of)).isEmpty();
+        assertThat(coalescer.search(criteria, List::of)).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidDeadline() {
+        assertThatThrownBy(() -> TaskSearchCriteria.of(null, null, "31/01/2025", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ch.cern.todo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the priming of the precompiled search statements.
+ */
+@SpringBootTest
+class TaskSearchPlansTests {
+
+    // 64 filter shapes: find, count and exists over the hot tasks, and the same
+    // over the archive for the 32 shapes without an ID list
+    private static final int STATEMENTS = 32 * 3 + 32 * 6;
+
+    @Autowired
+    private TaskSearchPlans searchPlans;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void primesEveryStatementOfEveryShape() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long executions = statistics.getQueryExecutionCount();
+
+        Integer primed = transactionTemplate.execute(status -> searchPlans.prime());
+
+        assertThat(primed).isEqualTo(STATEMENTS);
+        assertThat(statistics.getQueryExecutionCount() - executions).isGreaterThanOrEqualTo(STATEMENTS);
+    }
+}
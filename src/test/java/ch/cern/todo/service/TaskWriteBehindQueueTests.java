@@ -0,0 +1,151 @@
+package ch.cern.todo.service;
+
+import ch.cern.todo.model.Task;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests of the group commits of the write-behind queue, over a task
+ * service that only records the tasks it creates.
+ */
+class TaskWriteBehindQueueTests {
+
+    private static final String FAILING = "failing";
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskWriteBehindQueue queue;
+
+    @AfterEach
+    void stop() {
+        if (queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void batchesMutationsWithinTheLatencyBudget() throws Exception {
+        queue = start(3, 500);
+        List<CompletableFuture<Task>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(queue.create(task("task " + i)));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).getName()).isEqualTo("task " + i);
+        }
+
+        // a full batch of three, then the two left once the budget is used up
+        DistributionSummary batches = meterRegistry.get("todo.write-behind.batch.size").summary();
+        assertThat(batches.count()).isEqualTo(2);
+        assertThat(batches.max()).isEqualTo(3);
+        assertThat(transactionManager.commits).hasValue(2);
+    }
+
+    @Test
+    void failingMutationOnlyFailsItself() throws Exception {
+        queue = start(3, 500);
+        CompletableFuture<Task> first = queue.create(task("first"));
+        CompletableFuture<Task> failing = queue.create(task(FAILING));
+        CompletableFuture<Task> last = queue.create(task("last"));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getName()).isEqualTo("first");
+        assertThat(last.get(5, TimeUnit.SECONDS).getName()).isEqualTo("last");
+        assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+
+        // the group commit is rolled back, then each mutation gets its own transaction
+        assertThat(transactionManager.rollbacks).hasValue(2);
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(meterRegistry.get("todo.write-behind.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void stopWritesTheQueuedMutations() {
+        queue = start(2, 200);
+        List<CompletableFuture<Task>> results = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            results.add(queue.create(task("queued " + i)));
+        }
+        queue.stop();
+
+        assertThat(results).allMatch(result -> result.isDone() && !result.isCompletedExceptionally());
+        assertThat(meterRegistry.get("todo.write-behind.batch.size").summary().totalAmount()).isEqualTo(7);
+        assertThatThrownBy(() -> queue.create(task("late"))).isInstanceOf(TaskRejectedException.class);
+    }
+
+    private TaskWriteBehindQueue start(int maxBatchSize, long maxDelayMillis) {
+        TaskWriteBehindQueue started = new TaskWriteBehindQueue(new RecordingTaskService(transactionManager),
+                transactionManager, 100, maxBatchSize, maxDelayMillis, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private static Task task(String name) {
+        return new Task(name, null, LocalDateTime.now().plusDays(1), null, null);
+    }
+
+    /**
+     * A task service that assigns IDs to the tasks it creates, and fails the
+     * creation of the tasks named FAILING.
+     */
+    private static final class RecordingTaskService extends TaskService {
+        private final AtomicLong ids = new AtomicLong();
+
+        private RecordingTaskService(CountingTransactionManager transactionManager) {
+            super(null, null, null, null, null, null, null, null, transactionManager);
+        }
+
+        @Override
+        public Task createTask(Task task) {
+            if (FAILING.equals(task.getName())) {
+                throw new IllegalStateException("constraint violated");
+            }
+            task.setId(ids.incrementAndGet());
+            return task;
+        }
+    }
+
+    /**
+     * A transaction manager without a resource, counting the commits and
+     * rollbacks.
+     */
+    private static final class CountingTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}